@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.data;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.saveddata.SavedData;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * World-level SavedData holding the running well pre-generation, so that it
+ * resumes after a restart.
+ */
+public class WellPregenData extends SavedData {
+    private static final String DATA_NAME = "weatheredwells_pregen";
+    private static final String TAG_DIMENSION = "dimension";
+    private static final String TAG_ORIGIN_X = "origin_x";
+    private static final String TAG_ORIGIN_Z = "origin_z";
+    private static final String TAG_RADIUS = "radius";
+    private static final String TAG_MAX_MSPT = "max_mspt";
+    private static final String TAG_RING = "ring";
+    private static final String TAG_RING_INDEX = "ring_index";
+    private static final String TAG_CHUNKS = "chunks";
+    private static final String TAG_WELLS = "wells";
+
+    @Nullable
+    private WellPregenProgress progress;
+
+    public static WellPregenData get(ServerLevel level) {
+        return level.getDataStorage().computeIfAbsent(
+                WellPregenData::load, WellPregenData::new, DATA_NAME
+        );
+    }
+
+    public static WellPregenData load(CompoundTag tag) {
+        WellPregenData data = new WellPregenData();
+        ResourceLocation dimension = ResourceLocation.tryParse(tag.getString(TAG_DIMENSION));
+        if (tag.contains(TAG_DIMENSION) && dimension != null) {
+            data.progress = new WellPregenProgress(
+                    dimension,
+                    tag.getInt(TAG_ORIGIN_X),
+                    tag.getInt(TAG_ORIGIN_Z),
+                    tag.getInt(TAG_RADIUS),
+                    tag.getInt(TAG_MAX_MSPT),
+                    tag.getInt(TAG_RING),
+                    tag.getInt(TAG_RING_INDEX),
+                    tag.getLong(TAG_CHUNKS),
+                    tag.getInt(TAG_WELLS)
+            );
+        }
+        return data;
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag) {
+        if (progress != null) {
+            tag.putString(TAG_DIMENSION, progress.dimension().toString());
+            tag.putInt(TAG_ORIGIN_X, progress.originX());
+            tag.putInt(TAG_ORIGIN_Z, progress.originZ());
+            tag.putInt(TAG_RADIUS, progress.radius());
+            tag.putInt(TAG_MAX_MSPT, progress.maxMspt());
+            tag.putInt(TAG_RING, progress.ring());
+            tag.putInt(TAG_RING_INDEX, progress.ringIndex());
+            tag.putLong(TAG_CHUNKS, progress.chunks());
+            tag.putInt(TAG_WELLS, progress.wells());
+        }
+        return tag;
+    }
+
+    @Nullable
+    public WellPregenProgress getProgress() {
+        return progress;
+    }
+
+    public void setProgress(@Nullable WellPregenProgress progress) {
+        this.progress = progress;
+        setDirty();
+    }
+}
@@ -19,19 +19,33 @@ package com.weatheredwells.events;
 
 import com.weatheredwells.WeatheredWells;
 import com.weatheredwells.data.PlayerBuffData;
-import com.weatheredwells.effects.WaterHealingHandler;
+import com.weatheredwells.data.WellIndex;
+import com.weatheredwells.effects.WaterHealingLoad;
+import com.weatheredwells.effects.WaterHealingScheduler;
 import com.weatheredwells.registry.ModEffects;
+import com.weatheredwells.worldgen.WellLocator;
+import com.weatheredwells.worldgen.WellPregenerator;
+import com.weatheredwells.worldgen.WellProcessedTemplateCache;
+import com.weatheredwells.worldgen.WellStructurePolicies;
+import com.weatheredwells.worldgen.WellTemplateIndex;
+import com.weatheredwells.worldgen.WellTemplateWarmup;
+import com.weatheredwells.worldgen.WellVariantTable;
+import dev.architectury.event.events.common.LifecycleEvent;
 import dev.architectury.event.events.common.PlayerEvent;
 import dev.architectury.event.events.common.TickEvent;
+import dev.architectury.registry.ReloadListenerRegistry;
 import net.minecraft.advancements.Advancement;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.packs.PackType;
+import net.minecraft.server.packs.resources.ResourceManagerReloadListener;
 import net.minecraft.world.effect.MobEffect;
 import net.minecraft.world.effect.MobEffectInstance;
 
 /**
  * Registers and handles mod events:
- * - Server tick: water healing logic
+ * - Level tick: water healing logic
+ * - Server tick: well index flush, well pre-generation, tick time for water healing load
  * - Player advancement: grants buffs based on achievement
  * - Player join/respawn: restores MobEffect display from saved data
  */
@@ -48,7 +62,38 @@ public class WeatheredWellsEvents {
     private static final int INFINITE_DURATION = -1;
 
     public static void register() {
-        TickEvent.SERVER_POST.register(WaterHealingHandler::onServerTick);
+        TickEvent.SERVER_PRE.register(WaterHealingLoad::onServerTickStart);
+        TickEvent.SERVER_LEVEL_POST.register(WaterHealingScheduler::onLevelTick);
+        TickEvent.SERVER_POST.register(WellIndex::flush);
+        TickEvent.SERVER_POST.register(WellPregenerator::tick);
+        TickEvent.SERVER_POST.register(WaterHealingLoad::onServerTickEnd);
+        LifecycleEvent.SERVER_STARTING.register(server ->
+                WellStructurePolicies.rebuild(server.registryAccess()));
+        LifecycleEvent.SERVER_STARTED.register(WellTemplateWarmup::start);
+        LifecycleEvent.SERVER_STARTED.register(WellPregenerator::resume);
+        LifecycleEvent.SERVER_STOPPING.register(WellIndex::flush);
+        LifecycleEvent.SERVER_LEVEL_SAVE.register(level -> WellIndex.flush(level.getServer()));
+        LifecycleEvent.SERVER_STOPPED.register(server -> {
+            WellStructurePolicies.clear();
+            WellVariantTable.clear();
+            WellTemplateIndex.clear();
+            WellProcessedTemplateCache.clear();
+            WellLocator.clear();
+            WellIndex.clear();
+            WellPregenerator.clear();
+            WaterHealingScheduler.clear();
+            WaterHealingLoad.clear();
+        });
+        LifecycleEvent.SERVER_LEVEL_UNLOAD.register(level -> {
+            WellLocator.clear(level.dimension());
+            WaterHealingScheduler.clear(level.dimension());
+        });
+        ReloadListenerRegistry.register(PackType.SERVER_DATA,
+                (ResourceManagerReloadListener) resourceManager -> {
+                    WellTemplateIndex.clear();
+                    WellProcessedTemplateCache.clear();
+                },
+                new ResourceLocation(WeatheredWells.MOD_ID, "template_index"));
         PlayerEvent.PLAYER_ADVANCEMENT.register(WeatheredWellsEvents::onAdvancement);
         PlayerEvent.PLAYER_JOIN.register(WeatheredWellsEvents::onPlayerJoin);
         PlayerEvent.PLAYER_RESPAWN.register(WeatheredWellsEvents::onPlayerRespawn);
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.mixin;
+
+import com.weatheredwells.worldgen.WellProcessedTemplateCache;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ServerLevelAccessor;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.List;
+
+/**
+ * Mixin to serve processed well templates from the {@link WellProcessedTemplateCache}
+ * instead of running the processor chain for every placement.
+ */
+@Mixin(StructureTemplate.class)
+public abstract class StructureTemplateMixin {
+
+    @Inject(
+            method = "processBlockInfos(Lnet/minecraft/world/level/ServerLevelAccessor;Lnet/minecraft/core/BlockPos;Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/levelgen/structure/templatesystem/StructurePlaceSettings;Ljava/util/List;)Ljava/util/List;",
+            at = @At("HEAD"),
+            cancellable = true)
+    private static void useProcessedTemplateCache(
+            ServerLevelAccessor level,
+            BlockPos offset,
+            BlockPos pos,
+            StructurePlaceSettings settings,
+            List<StructureTemplate.StructureBlockInfo> blockInfos,
+            CallbackInfoReturnable<List<StructureTemplate.StructureBlockInfo>> cir) {
+
+        List<StructureTemplate.StructureBlockInfo> cached =
+                WellProcessedTemplateCache.process(level, offset, settings, blockInfos);
+        if (cached != null) {
+            cir.setReturnValue(cached);
+        }
+    }
+
+    /**
+     * Forge-based loaders place templates through an overload that also passes
+     * the template; it does not exist on Fabric, hence require = 0.
+     */
+    @Inject(
+            method = "processBlockInfos(Lnet/minecraft/world/level/ServerLevelAccessor;Lnet/minecraft/core/BlockPos;Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/levelgen/structure/templatesystem/StructurePlaceSettings;Ljava/util/List;Lnet/minecraft/world/level/levelgen/structure/templatesystem/StructureTemplate;)Ljava/util/List;",
+            at = @At("HEAD"),
+            cancellable = true,
+            require = 0)
+    private static void useProcessedTemplateCacheForTemplate(
+            ServerLevelAccessor level,
+            BlockPos offset,
+            BlockPos pos,
+            StructurePlaceSettings settings,
+            List<StructureTemplate.StructureBlockInfo> blockInfos,
+            StructureTemplate template,
+            CallbackInfoReturnable<List<StructureTemplate.StructureBlockInfo>> cir) {
+
+        useProcessedTemplateCache(level, offset, pos, settings, blockInfos, cir);
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.ChunkStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Non-blocking chunk requests for the {@link WellPregenerator}.
+ *
+ * A request adds the chunk source's short-lived ticket at full chunk level and
+ * schedules loading or generation on the worldgen threads without waiting for
+ * it. The ticket expires after a tick, so a chunk that is still pending has to
+ * be requested again every tick until {@link #loaded} returns it.
+ */
+public class WellChunkRequests {
+
+    /** Requests the chunk at full status; server thread only. */
+    public static void request(ServerLevel level, int x, int z) {
+        level.getChunkSource().getChunkFuture(x, z, ChunkStatus.FULL, true);
+    }
+
+    /** The chunk once it is loaded at full status, or null while it is pending. */
+    @Nullable
+    public static LevelChunk loaded(ServerLevel level, int x, int z) {
+        return level.getChunkSource().getChunkNow(x, z);
+    }
+}
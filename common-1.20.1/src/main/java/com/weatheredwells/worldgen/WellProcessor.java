@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import com.weatheredwells.registry.ModProcessors;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.ServerLevelAccessor;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.BlockStateProperties;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureProcessor;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureProcessorType;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Structure processor combining {@link WaterlogRemovalProcessor} and
+ * {@link ChestLootProcessor} for well pieces.
+ *
+ * Works on the whole processed block list in one pass (finalizeProcessing)
+ * instead of once per block, and only allocates for the blocks it changes.
+ */
+public class WellProcessor extends StructureProcessor {
+    public static final Codec<WellProcessor> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+            Codec.BOOL.optionalFieldOf("remove_waterlogging", false).forGetter(WellProcessor::removesWaterlogging),
+            Codec.BOOL.optionalFieldOf("assign_chest_loot", false).forGetter(WellProcessor::assignsChestLoot),
+            ResourceLocation.CODEC.optionalFieldOf("loot_table", ChestLootProcessor.DEFAULT_LOOT_TABLE)
+                    .forGetter(processor -> processor.chestLoot.lootTable())
+    ).apply(instance, WellProcessor::new));
+
+    private final boolean removeWaterlogging;
+    private final boolean assignChestLoot;
+    private final WellChestLoot chestLoot;
+
+    public WellProcessor(boolean removeWaterlogging, boolean assignChestLoot, ResourceLocation lootTable) {
+        this.removeWaterlogging = removeWaterlogging;
+        this.assignChestLoot = assignChestLoot;
+        this.chestLoot = new WellChestLoot(lootTable);
+    }
+
+    public boolean removesWaterlogging() {
+        return removeWaterlogging;
+    }
+
+    public boolean assignsChestLoot() {
+        return assignChestLoot;
+    }
+
+    @Override
+    public List<StructureTemplate.StructureBlockInfo> finalizeProcessing(
+            ServerLevelAccessor level,
+            BlockPos offset,
+            BlockPos pos,
+            List<StructureTemplate.StructureBlockInfo> originalBlockInfos,
+            List<StructureTemplate.StructureBlockInfo> processedBlockInfos,
+            StructurePlaceSettings settings) {
+
+        long worldSeed = WellChestLoot.worldSeed(level);
+        List<StructureTemplate.StructureBlockInfo> result = processedBlockInfos;
+        for (int i = 0; i < processedBlockInfos.size(); i++) {
+            StructureTemplate.StructureBlockInfo info = processedBlockInfos.get(i);
+            StructureTemplate.StructureBlockInfo processed = process(info, worldSeed);
+            if (processed != info) {
+                if (result == processedBlockInfos) {
+                    // Earlier processors may hand over an immutable list
+                    result = new ArrayList<>(processedBlockInfos);
+                }
+                result.set(i, processed);
+            }
+        }
+        return result;
+    }
+
+    private StructureTemplate.StructureBlockInfo process(StructureTemplate.StructureBlockInfo info, long worldSeed) {
+        BlockState state = info.state();
+        CompoundTag nbt = info.nbt();
+
+        if (removeWaterlogging && state.hasProperty(BlockStateProperties.WATERLOGGED)
+                && state.getValue(BlockStateProperties.WATERLOGGED)) {
+            // Mixin will restore intentional waterlogging after placement
+            state = state.setValue(BlockStateProperties.WATERLOGGED, false);
+        }
+
+        if (assignChestLoot && state.is(Blocks.CHEST)) {
+            nbt = chestLoot.apply(nbt, worldSeed, info.pos());
+        }
+
+        return state != info.state() || nbt != info.nbt()
+                ? new StructureTemplate.StructureBlockInfo(info.pos(), state, nbt)
+                : info;
+    }
+
+    @Override
+    protected StructureProcessorType<?> getType() {
+        return ModProcessors.WELL.get();
+    }
+}
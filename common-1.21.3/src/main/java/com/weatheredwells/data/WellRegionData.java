@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.data;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.saveddata.SavedData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SavedData holding the wells of one {@link WellIndex} shard of 32x32 regions,
+ * grouped by region and keyed by the chunk of their structure start.
+ */
+public class WellRegionData extends SavedData {
+    private static final String DATA_NAME_PREFIX = "weatheredwells_well_shard_";
+    private static final String TAG_WELLS = "wells";
+    private static final String TAG_CHUNK = "chunk";
+    private static final String TAG_X = "x";
+    private static final String TAG_Y = "y";
+    private static final String TAG_Z = "z";
+    private static final String TAG_VARIANT = "variant";
+    private static final String TAG_BOX = "box";
+
+    private final Map<Long, Map<Long, WellRecord>> regions = new HashMap<>();
+
+    public static WellRegionData get(ServerLevel level, long shard) {
+        return level.getDataStorage().computeIfAbsent(
+                new Factory<>(WellRegionData::new, WellRegionData::load, null),
+                dataName(shard)
+        );
+    }
+
+    private static String dataName(long shard) {
+        return DATA_NAME_PREFIX + ChunkPos.getX(shard) + "_" + ChunkPos.getZ(shard);
+    }
+
+    public static WellRegionData load(CompoundTag tag, HolderLookup.Provider registries) {
+        WellRegionData data = new WellRegionData();
+        ListTag wellsTag = tag.getList(TAG_WELLS, Tag.TAG_COMPOUND);
+        for (int i = 0; i < wellsTag.size(); i++) {
+            CompoundTag wellTag = wellsTag.getCompound(i);
+            ResourceLocation variant = ResourceLocation.tryParse(wellTag.getString(TAG_VARIANT));
+            int[] box = wellTag.getIntArray(TAG_BOX);
+            if (variant == null || box.length != 6) {
+                continue;
+            }
+            WellRecord record = new WellRecord(
+                    wellTag.getLong(TAG_CHUNK),
+                    new BlockPos(wellTag.getInt(TAG_X), wellTag.getInt(TAG_Y), wellTag.getInt(TAG_Z)),
+                    variant,
+                    new BoundingBox(box[0], box[1], box[2], box[3], box[4], box[5])
+            );
+            data.add(record);
+        }
+        return data;
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag, HolderLookup.Provider registries) {
+        ListTag wellsTag = new ListTag();
+        for (WellRecord record : wells()) {
+            CompoundTag wellTag = new CompoundTag();
+            BoundingBox box = record.box();
+            wellTag.putLong(TAG_CHUNK, record.chunk());
+            wellTag.putInt(TAG_X, record.pos().getX());
+            wellTag.putInt(TAG_Y, record.pos().getY());
+            wellTag.putInt(TAG_Z, record.pos().getZ());
+            wellTag.putString(TAG_VARIANT, record.variant().toString());
+            wellTag.putIntArray(TAG_BOX, new int[]{
+                    box.minX(), box.minY(), box.minZ(), box.maxX(), box.maxY(), box.maxZ()
+            });
+            wellsTag.add(wellTag);
+        }
+        tag.put(TAG_WELLS, wellsTag);
+        return tag;
+    }
+
+    /** Wells of one region of this shard. */
+    public Collection<WellRecord> records(long region) {
+        Map<Long, WellRecord> wells = regions.get(region);
+        return wells != null ? Collections.unmodifiableCollection(wells.values()) : List.of();
+    }
+
+    public void put(WellRecord record) {
+        if (!record.equals(add(record))) {
+            setDirty();
+        }
+    }
+
+    private WellRecord add(WellRecord record) {
+        long region = WellIndex.regionOf(record.pos().getX(), record.pos().getZ());
+        return regions.computeIfAbsent(region, key -> new HashMap<>()).put(record.chunk(), record);
+    }
+
+    private List<WellRecord> wells() {
+        List<WellRecord> wells = new ArrayList<>();
+        regions.values().forEach(region -> wells.addAll(region.values()));
+        return wells;
+    }
+}
@@ -18,7 +18,7 @@
 package com.weatheredwells.worldgen;
 
 import com.mojang.serialization.MapCodec;
-import com.weatheredwells.WeatheredWells;
+import com.weatheredwells.registry.ModProcessors;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.LevelReader;
 import net.minecraft.world.level.block.state.BlockState;
@@ -29,29 +29,16 @@ import net.minecraft.world.level.levelgen.structure.templatesystem.StructureProc
 import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collections;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-
 /**
- * Structure processor that tracks intentional waterlogging from NBT and
- * removes all waterlogging during placement. The StructureStartMixin
- * restores intentional waterlogging after placement and removes
+ * Structure processor that removes all waterlogging during placement.
+ * The StructureStartMixin restores intentional waterlogging after placement
+ * (from the template's precomputed {@link WellTemplateMask}) and removes
  * unintentional waterlogging caused by adjacent water (Aquifer system).
  */
 public class WaterlogRemovalProcessor extends StructureProcessor {
     public static final WaterlogRemovalProcessor INSTANCE = new WaterlogRemovalProcessor();
     public static final MapCodec<WaterlogRemovalProcessor> CODEC = MapCodec.unit(INSTANCE);
 
-    public static StructureProcessorType<WaterlogRemovalProcessor> TYPE;
-
-    /**
-     * Thread-safe set to track blocks that have intentional waterlogging (from NBT).
-     * These positions will be restored by the StructureStartMixin after placement.
-     */
-    public static final Set<BlockPos> INTENTIONAL_WATERLOGGING =
-            Collections.newSetFromMap(new ConcurrentHashMap<>());
-
     @Nullable
     @Override
     public StructureTemplate.StructureBlockInfo processBlock(
@@ -65,16 +52,6 @@ public class WaterlogRemovalProcessor extends StructureProcessor {
         BlockState state = modifiedInfo.state();
 
         if (state.hasProperty(BlockStateProperties.WATERLOGGED)) {
-            BlockState originalState = originalInfo.state();
-            boolean originalWaterlogged = originalState.hasProperty(BlockStateProperties.WATERLOGGED)
-                    && originalState.getValue(BlockStateProperties.WATERLOGGED);
-
-            if (originalWaterlogged) {
-                // Record intentional waterlogging for restoration by Mixin
-                INTENTIONAL_WATERLOGGING.add(modifiedInfo.pos().immutable());
-                WeatheredWells.LOGGER.debug("Recorded intentional waterlogging at {}", modifiedInfo.pos());
-            }
-
             // Remove all waterlogging; Mixin will restore intentional ones after placement
             boolean currentWaterlogged = state.getValue(BlockStateProperties.WATERLOGGED);
             if (currentWaterlogged) {
@@ -89,6 +66,6 @@ public class WaterlogRemovalProcessor extends StructureProcessor {
 
     @Override
     protected StructureProcessorType<?> getType() {
-        return TYPE;
+        return ModProcessors.WATERLOG_REMOVAL.get();
     }
 }
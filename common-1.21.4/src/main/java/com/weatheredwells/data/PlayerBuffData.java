@@ -17,6 +17,7 @@
  */
 package com.weatheredwells.data;
 
+import com.weatheredwells.effects.WaterHealingScheduler;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.server.level.ServerLevel;
@@ -83,6 +84,7 @@ public class PlayerBuffData extends SavedData {
         PlayerBuff buff = playerBuffs.computeIfAbsent(player.getUUID(), k -> new PlayerBuff(0, false));
         buff.lingeringLevel = Math.min(level, 3);
         setDirty();
+        WaterHealingScheduler.onBuffsChanged(player, buff.lingeringLevel, buff.attunement);
     }
 
     public boolean hasAttunement(ServerPlayer player) {
@@ -94,6 +96,7 @@ public class PlayerBuffData extends SavedData {
         PlayerBuff buff = playerBuffs.computeIfAbsent(player.getUUID(), k -> new PlayerBuff(0, false));
         buff.attunement = attunement;
         setDirty();
+        WaterHealingScheduler.onBuffsChanged(player, buff.lingeringLevel, buff.attunement);
     }
 
     private static class PlayerBuff {
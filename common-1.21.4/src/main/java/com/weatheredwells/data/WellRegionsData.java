@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.data;
+
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.saveddata.SavedData;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * SavedData listing the {@link WellIndex} regions of a dimension that hold
+ * wells, so that queries never create empty {@link WellRegionData}.
+ */
+public class WellRegionsData extends SavedData {
+    private static final String DATA_NAME = "weatheredwells_wells";
+    private static final String TAG_REGIONS = "regions";
+
+    private final Set<Long> regions = new HashSet<>();
+
+    public static WellRegionsData get(ServerLevel level) {
+        return level.getDataStorage().computeIfAbsent(
+                new Factory<>(WellRegionsData::new, WellRegionsData::load, null),
+                DATA_NAME
+        );
+    }
+
+    public static WellRegionsData load(CompoundTag tag, HolderLookup.Provider registries) {
+        WellRegionsData data = new WellRegionsData();
+        for (long region : tag.getLongArray(TAG_REGIONS)) {
+            data.regions.add(region);
+        }
+        return data;
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag, HolderLookup.Provider registries) {
+        tag.putLongArray(TAG_REGIONS, regions.stream().mapToLong(Long::longValue).toArray());
+        return tag;
+    }
+
+    public int size() {
+        return regions.size();
+    }
+
+    public Set<Long> regions() {
+        return Collections.unmodifiableSet(regions);
+    }
+
+    public boolean contains(long region) {
+        return regions.contains(region);
+    }
+
+    public void add(long region) {
+        if (regions.add(region)) {
+            setDirty();
+        }
+    }
+}
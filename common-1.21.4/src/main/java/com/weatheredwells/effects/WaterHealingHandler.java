@@ -17,19 +17,14 @@
  */
 package com.weatheredwells.effects;
 
-import com.weatheredwells.data.PlayerBuffData;
 import com.weatheredwells.registry.ModParticles;
-import net.minecraft.server.MinecraftServer;
-import net.minecraft.server.level.ServerLevel;
+import net.minecraft.network.protocol.game.ClientboundLevelParticlesPacket;
 import net.minecraft.server.level.ServerPlayer;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
-
 /**
  * Handles water contact healing logic for players with Lingering buff.
- * Called every server tick.
+ * Heals are timed by the {@link WaterHealingScheduler}, and their particles
+ * sent in per-tick batches by {@link WaterHealingParticles}.
  *
  * Healing rules:
  * - Player must be in water (isInWater)
@@ -46,57 +41,39 @@ public class WaterHealingHandler {
     private static final int ATTUNEMENT_ACTIVATION_DELAY = 40; // 2 seconds
     private static final float HEAL_AMOUNT = 1.0f; // 0.5 hearts
 
-    private static final Map<UUID, Integer> waterContactTicks = new HashMap<>();
-
-    public static void onServerTick(MinecraftServer server) {
-        PlayerBuffData data = PlayerBuffData.get(server.overworld());
-
-        for (ServerPlayer player : server.getPlayerList().getPlayers()) {
-            int lingeringLevel = data.getLingeringLevel(player);
-            if (lingeringLevel <= 0) {
-                continue;
-            }
-
-            UUID uuid = player.getUUID();
-
-            if (player.isInWater()) {
-                int ticks = waterContactTicks.getOrDefault(uuid, 0) + 1;
-                waterContactTicks.put(uuid, ticks);
+    /** Heals the player if hurt; returns whether they were, so a particle burst is due. */
+    public static boolean heal(ServerPlayer player) {
+        float currentHealth = player.getHealth();
+        float maxHealth = player.getMaxHealth();
+        if (currentHealth < maxHealth) {
+            player.heal(HEAL_AMOUNT);
+            return true;
+        }
+        return false;
+    }
 
-                int activationDelay = data.hasAttunement(player)
-                        ? ATTUNEMENT_ACTIVATION_DELAY
-                        : DEFAULT_ACTIVATION_DELAY;
+    /** Particle burst of one heal, centred half a block above the player's feet. */
+    public static ClientboundLevelParticlesPacket healParticles(double x, double y, double z) {
+        return new ClientboundLevelParticlesPacket(
+                ModParticles.WATER_HEALING.get(),
+                false,     // no limiter override (32-block range)
+                false,     // not always shown
+                x,
+                y + 0.5,
+                z,
+                0.2f,
+                0.3f,
+                0.2f,
+                0.0f,
+                2
+        );
+    }
 
-                if (ticks >= activationDelay) {
-                    int healInterval = getHealInterval(lingeringLevel);
-                    int ticksSinceActivation = ticks - activationDelay;
-                    if (ticksSinceActivation % healInterval == 0) {
-                        float currentHealth = player.getHealth();
-                        float maxHealth = player.getMaxHealth();
-                        if (currentHealth < maxHealth) {
-                            player.heal(HEAL_AMOUNT);
-                            ServerLevel level = player.serverLevel();
-                            level.sendParticles(
-                                    ModParticles.WATER_HEALING.get(),
-                                    player.getX(),
-                                    player.getY() + 0.5,
-                                    player.getZ(),
-                                    2,
-                                    0.2,
-                                    0.3,
-                                    0.2,
-                                    0
-                            );
-                        }
-                    }
-                }
-            } else {
-                waterContactTicks.remove(uuid);
-            }
-        }
+    public static int getActivationDelay(boolean attunement) {
+        return attunement ? ATTUNEMENT_ACTIVATION_DELAY : DEFAULT_ACTIVATION_DELAY;
     }
 
-    private static int getHealInterval(int level) {
+    public static int getHealInterval(int level) {
         return switch (level) {
             case 1 -> 60;  // 3 seconds
             case 2 -> 50;  // 2.5 seconds
@@ -17,11 +17,15 @@
  */
 package com.weatheredwells.mixin;
 
-import com.weatheredwells.WeatheredWells;
-import com.weatheredwells.worldgen.WaterlogRemovalProcessor;
+import com.weatheredwells.data.WellIndex;
+import com.weatheredwells.worldgen.WellPlacementContext;
+import com.weatheredwells.worldgen.WellPlacementPolicy;
+import com.weatheredwells.worldgen.WellPlacementStats;
+import com.weatheredwells.worldgen.WellSectionScanner;
+import com.weatheredwells.worldgen.WellStructurePolicies;
+import com.weatheredwells.worldgen.WellTemplateIndex;
+import com.weatheredwells.worldgen.WellTemplateMask;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.registries.Registries;
-import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.RandomSource;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.StructureManager;
@@ -31,16 +35,20 @@ import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.state.properties.BlockStateProperties;
 import net.minecraft.world.level.chunk.ChunkGenerator;
 import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.levelgen.structure.PoolElementStructurePiece;
 import net.minecraft.world.level.levelgen.structure.Structure;
 import net.minecraft.world.level.levelgen.structure.StructurePiece;
 import net.minecraft.world.level.levelgen.structure.StructureStart;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Mixin to prevent unintentional waterlogging in well structure generation.
@@ -48,18 +56,49 @@ import java.util.List;
  * Strategy:
  * 1. Before placement (HEAD): Remove water blocks within structure bounds
  *    to prevent waterloggable blocks from becoming waterlogged during placement.
- * 2. After placement (RETURN): Restore intentional waterlogging (recorded by
- *    WaterlogRemovalProcessor) and remove any unintentional waterlogging.
+ * 2. After placement (RETURN): Restore intentional waterlogging (taken from
+ *    the template's precomputed WellTemplateMask, since the well processor
+ *    strips it during placement) and remove any unintentional waterlogging.
+ *    The check reaches 1 block into the neighbouring chunks, which may have
+ *    been placed already, to fix waterlogging that spread across the border.
+ *    The border is checked here rather than deferred to the neighbour: a
+ *    neighbour placed earlier has no later placement pass to drain it from,
+ *    and vanilla never places the features of overlapping chunk regions at
+ *    once, so the 1-block write across the border does not race.
+ *
+ * State recorded during placement lives in a {@link WellPlacementContext}
+ * that is opened at HEAD and closed at RETURN on the placing thread. Block
+ * edits of each pass are buffered and applied in one sweep at its end.
+ *
+ * Several chunks may run placeInChunk at the same time on different worldgen
+ * threads. Per-placement state is thread-confined, the shared caches
+ * (WellStructurePolicies, WellTemplateIndex) are immutable snapshots or
+ * concurrent maps, and block edits go through the section's threading
+ * detector (see WellEditBuffer).
+ *
+ * A valid well start is recorded in the WellIndex once it has been placed in
+ * its own chunk, and the time spent in both passes is added to
+ * WellPlacementStats.
  */
 @Mixin(StructureStart.class)
 public abstract class StructureStartMixin {
 
+    private static final Predicate<BlockState> IS_WATER_SOURCE =
+            state -> state.getBlock() == Blocks.WATER && state.getFluidState().isSource();
+
+    private static final Predicate<BlockState> IS_WATERLOGGABLE =
+            state -> state.hasProperty(BlockStateProperties.WATERLOGGED);
+
     @Shadow
     private Structure structure;
 
     @Shadow
     public abstract List<StructurePiece> getPieces();
 
+    /** Policy of this start, resolved from its structure and pieces on first placement. */
+    @Unique
+    private volatile WellPlacementPolicy weatheredwells$policy;
+
     @Inject(method = "placeInChunk", at = @At("HEAD"))
     private void removeWaterBeforePlacement(
             WorldGenLevel level,
@@ -70,16 +109,33 @@ public abstract class StructureStartMixin {
             ChunkPos chunkPos,
             CallbackInfo ci) {
 
-        if (!isWeatheredWellsStructure(level) || isSunkenWell(level)) {
+        if (getPlacementPolicy(level) != WellPlacementPolicy.FULL_FIXUP) {
             return;
         }
 
+        long startNanos = System.nanoTime();
+        removeWater(level, chunkBox);
+        WellPlacementStats.recordBeforePlacement(System.nanoTime() - startNanos);
+    }
+
+    @Unique
+    private void removeWater(WorldGenLevel level, BoundingBox chunkBox) {
+        WellPlacementContext context = WellPlacementContext.begin();
+        StructureTemplateManager templateManager = level.getLevel().getServer().getStructureManager();
+
         for (StructurePiece piece : getPieces()) {
             BoundingBox pieceBox = piece.getBoundingBox();
             if (!pieceBox.intersects(chunkBox)) {
                 continue;
             }
 
+            if (piece instanceof PoolElementStructurePiece poolPiece) {
+                WellTemplateMask.Cells cells = WellTemplateIndex.cellsFor(templateManager, poolPiece);
+                if (cells != null) {
+                    context.markIntentionallyWaterlogged(cells.intentional(), poolPiece.getPosition());
+                }
+            }
+
             int minX = Math.max(pieceBox.minX(), chunkBox.minX());
             int minY = Math.max(pieceBox.minY(), chunkBox.minY());
             int minZ = Math.max(pieceBox.minZ(), chunkBox.minZ());
@@ -87,13 +143,12 @@ public abstract class StructureStartMixin {
             int maxY = Math.min(pieceBox.maxY(), chunkBox.maxY());
             int maxZ = Math.min(pieceBox.maxZ(), chunkBox.maxZ());
 
-            for (BlockPos pos : BlockPos.betweenClosed(minX, minY, minZ, maxX, maxY, maxZ)) {
-                BlockState state = level.getBlockState(pos);
-                if (state.getFluidState().isSource() && state.getBlock() == Blocks.WATER) {
-                    level.setBlock(pos, Blocks.AIR.defaultBlockState(), 2);
-                }
-            }
+            // Sections without water in their palette (most wells sit on dry land) are skipped by the scanner
+            WellSectionScanner.scan(level, minX, minY, minZ, maxX, maxY, maxZ, IS_WATER_SOURCE,
+                    (pos, state) -> context.edits().set(pos, Blocks.AIR.defaultBlockState()));
         }
+
+        context.edits().apply(level);
     }
 
     @Inject(method = "placeInChunk", at = @At("RETURN"))
@@ -106,11 +161,32 @@ public abstract class StructureStartMixin {
             ChunkPos chunkPos,
             CallbackInfo ci) {
 
-        if (!isWeatheredWellsStructure(level) || isSunkenWell(level)) {
-            WaterlogRemovalProcessor.INTENTIONAL_WATERLOGGING.clear();
+        WellPlacementPolicy policy = getPlacementPolicy(level);
+        StructureStart start = (StructureStart) (Object) this;
+        if (policy != WellPlacementPolicy.SKIP && start.isValid() && chunkPos.equals(start.getChunkPos())) {
+            // Recorded once per start, from the chunk that owns it
+            WellIndex.record(level.getLevel().dimension(), start);
+        }
+
+        if (policy != WellPlacementPolicy.FULL_FIXUP) {
             return;
         }
 
+        long startNanos = System.nanoTime();
+        repairWaterlogging(level, chunkBox);
+        WellPlacementStats.recordAfterPlacement(System.nanoTime() - startNanos);
+    }
+
+    @Unique
+    private void repairWaterlogging(WorldGenLevel level, BoundingBox chunkBox) {
+        WellPlacementContext context = WellPlacementContext.current();
+        if (context == null) {
+            return;
+        }
+
+        StructureTemplateManager templateManager = level.getLevel().getServer().getStructureManager();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
         for (StructurePiece piece : getPieces()) {
             BoundingBox pieceBox = piece.getBoundingBox();
             if (!pieceBox.intersects(chunkBox)) {
@@ -125,51 +201,62 @@ public abstract class StructureStartMixin {
             int maxY = Math.min(pieceBox.maxY(), chunkBox.maxY());
             int maxZ = Math.min(pieceBox.maxZ(), chunkBox.maxZ() + 1);
 
-            for (BlockPos pos : BlockPos.betweenClosed(minX, minY, minZ, maxX, maxY, maxZ)) {
-                BlockState state = level.getBlockState(pos);
-
-                if (state.hasProperty(BlockStateProperties.WATERLOGGED)) {
-                    boolean currentWaterlogged = state.getValue(BlockStateProperties.WATERLOGGED);
-                    BlockPos immutablePos = pos.immutable();
-                    boolean shouldBeWaterlogged =
-                            WaterlogRemovalProcessor.INTENTIONAL_WATERLOGGING.contains(immutablePos);
-
-                    if (currentWaterlogged != shouldBeWaterlogged) {
-                        BlockState newState = state.setValue(
-                                BlockStateProperties.WATERLOGGED, shouldBeWaterlogged);
-                        level.setBlock(pos, newState, 2);
-                    }
-
-                    if (shouldBeWaterlogged) {
-                        WaterlogRemovalProcessor.INTENTIONAL_WATERLOGGING.remove(immutablePos);
+            if (piece instanceof PoolElementStructurePiece poolPiece) {
+                WellTemplateMask.Cells cells = WellTemplateIndex.cellsFor(templateManager, poolPiece);
+                if (cells != null) {
+                    // Only the cells where the template places waterloggable blocks can need fixing
+                    BlockPos origin = poolPiece.getPosition();
+                    for (long cell : cells.waterloggable()) {
+                        int x = origin.getX() + BlockPos.getX(cell);
+                        int y = origin.getY() + BlockPos.getY(cell);
+                        int z = origin.getZ() + BlockPos.getZ(cell);
+                        if (x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ) {
+                            checkWaterlogging(level, context, cursor.set(x, y, z));
+                        }
                     }
+                    continue;
                 }
             }
-        }
 
-        // Safety cleanup
-        if (WaterlogRemovalProcessor.INTENTIONAL_WATERLOGGING.size() > 10000) {
-            WeatheredWells.LOGGER.warn(
-                    "INTENTIONAL_WATERLOGGING set is too large ({}), clearing",
-                    WaterlogRemovalProcessor.INTENTIONAL_WATERLOGGING.size());
-            WaterlogRemovalProcessor.INTENTIONAL_WATERLOGGING.clear();
+            WellSectionScanner.scan(level, minX, minY, minZ, maxX, maxY, maxZ, IS_WATERLOGGABLE,
+                    (pos, state) -> fixWaterlogging(context, pos, state));
         }
+
+        context.edits().apply(level);
+        WellPlacementContext.end();
     }
 
-    private boolean isWeatheredWellsStructure(WorldGenLevel level) {
-        ResourceLocation loc = getStructureLocation(level);
-        return loc != null && loc.getNamespace().equals(WeatheredWells.MOD_ID);
+    private static void checkWaterlogging(WorldGenLevel level, WellPlacementContext context, BlockPos pos) {
+        if (!context.markVisited(pos)) {
+            return;
+        }
+
+        BlockState state = level.getBlockState(pos);
+        if (IS_WATERLOGGABLE.test(state)) {
+            fixWaterlogging(context, pos, state);
+        }
     }
 
-    private boolean isSunkenWell(WorldGenLevel level) {
-        ResourceLocation loc = getStructureLocation(level);
-        return loc != null && loc.getNamespace().equals(WeatheredWells.MOD_ID)
-                && loc.getPath().equals("sunken_well");
+    private static void fixWaterlogging(WellPlacementContext context, BlockPos pos, BlockState state) {
+        boolean currentWaterlogged = state.getValue(BlockStateProperties.WATERLOGGED);
+        boolean shouldBeWaterlogged = context.isIntentionallyWaterlogged(pos);
+
+        if (currentWaterlogged != shouldBeWaterlogged) {
+            BlockState newState = state.setValue(
+                    BlockStateProperties.WATERLOGGED, shouldBeWaterlogged);
+            context.edits().set(pos, newState);
+        }
     }
 
-    private ResourceLocation getStructureLocation(WorldGenLevel level) {
-        return level.registryAccess()
-                .lookupOrThrow(Registries.STRUCTURE)
-                .getKey(structure);
+    private WellPlacementPolicy getPlacementPolicy(WorldGenLevel level) {
+        WellPlacementPolicy policy = weatheredwells$policy;
+        if (policy == null) {
+            policy = WellStructurePolicies.get(level.registryAccess(), structure);
+            if (policy == WellPlacementPolicy.FULL_FIXUP) {
+                policy = WellStructurePolicies.forPieces(getPieces());
+            }
+            weatheredwells$policy = policy;
+        }
+        return policy;
     }
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.data;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraft.world.level.saveddata.SavedDataType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SavedData holding the wells of one {@link WellIndex} shard of 32x32 regions,
+ * grouped by region and keyed by the chunk of their structure start.
+ */
+public class WellRegionData extends SavedData {
+    private static final String DATA_NAME_PREFIX = "weatheredwells_well_shard_";
+
+    private final Map<Long, Map<Long, WellRecord>> regions = new HashMap<>();
+
+    public static final Codec<WellRegionData> CODEC = RecordCodecBuilder.create(instance ->
+            instance.group(
+                    WellRecord.CODEC.listOf()
+                            .fieldOf("wells")
+                            .forGetter(WellRegionData::wells)
+            ).apply(instance, records -> {
+                WellRegionData data = new WellRegionData();
+                records.forEach(data::add);
+                return data;
+            })
+    );
+
+    public static WellRegionData get(ServerLevel level, long shard) {
+        return level.getDataStorage().computeIfAbsent(new SavedDataType<>(
+                DATA_NAME_PREFIX + ChunkPos.getX(shard) + "_" + ChunkPos.getZ(shard),
+                WellRegionData::new,
+                CODEC,
+                null
+        ));
+    }
+
+    /** Wells of one region of this shard. */
+    public Collection<WellRecord> records(long region) {
+        Map<Long, WellRecord> wells = regions.get(region);
+        return wells != null ? Collections.unmodifiableCollection(wells.values()) : List.of();
+    }
+
+    public void put(WellRecord record) {
+        if (!record.equals(add(record))) {
+            setDirty();
+        }
+    }
+
+    private WellRecord add(WellRecord record) {
+        long region = WellIndex.regionOf(record.pos().getX(), record.pos().getZ());
+        return regions.computeIfAbsent(region, key -> new HashMap<>()).put(record.chunk(), record);
+    }
+
+    private List<WellRecord> wells() {
+        List<WellRecord> wells = new ArrayList<>();
+        regions.values().forEach(region -> wells.addAll(region.values()));
+        return wells;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.mixin;
+
+import com.weatheredwells.effects.WaterHealingScheduler;
+import com.weatheredwells.effects.WaterHealingState;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.Level;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Mixin to attach the {@link WaterHealingState} fields to server players and
+ * to report water contact changes to the {@link WaterHealingScheduler}.
+ */
+@Mixin(ServerPlayer.class)
+public abstract class ServerPlayerMixin implements WaterHealingState {
+
+    @Unique
+    private boolean weatheredwells$inWater;
+
+    @Unique
+    private Level weatheredwells$level;
+
+    @Unique
+    private long weatheredwells$healDeadline = WaterHealingScheduler.UNSCHEDULED;
+
+    @Unique
+    private int weatheredwells$lingeringLevel = WaterHealingState.UNLOADED;
+
+    @Unique
+    private boolean weatheredwells$attunement;
+
+    /**
+     * Runs after the entity tick has updated the water state. A dimension change
+     * also counts, since every dimension has its own scheduler.
+     */
+    @Inject(method = "doTick", at = @At("TAIL"))
+    private void trackWaterContact(CallbackInfo ci) {
+        ServerPlayer player = (ServerPlayer) (Object) this;
+        boolean inWater = player.isInWater();
+        if (inWater != weatheredwells$inWater || player.level() != weatheredwells$level) {
+            weatheredwells$inWater = inWater;
+            weatheredwells$level = player.level();
+            WaterHealingScheduler.onWaterChanged(player, inWater);
+        }
+    }
+
+    @Override
+    public long weatheredwells$getHealDeadline() {
+        return weatheredwells$healDeadline;
+    }
+
+    @Override
+    public void weatheredwells$setHealDeadline(long tick) {
+        weatheredwells$healDeadline = tick;
+    }
+
+    @Override
+    public int weatheredwells$getLingeringLevel() {
+        return weatheredwells$lingeringLevel;
+    }
+
+    @Override
+    public boolean weatheredwells$hasAttunement() {
+        return weatheredwells$attunement;
+    }
+
+    @Override
+    public void weatheredwells$setBuffs(int lingeringLevel, boolean attunement) {
+        weatheredwells$lingeringLevel = lingeringLevel;
+        weatheredwells$attunement = attunement;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.MapCodec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import com.weatheredwells.registry.ModStructureTypes;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.levelgen.WorldGenerationContext;
+import net.minecraft.world.level.levelgen.WorldgenRandom;
+import net.minecraft.world.level.levelgen.heightproviders.HeightProvider;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.levelgen.structure.PoolElementStructurePiece;
+import net.minecraft.world.level.levelgen.structure.Structure;
+import net.minecraft.world.level.levelgen.structure.StructureType;
+import net.minecraft.world.level.levelgen.structure.pools.EmptyPoolElement;
+import net.minecraft.world.level.levelgen.structure.pools.SinglePoolElement;
+import net.minecraft.world.level.levelgen.structure.pools.StructurePoolElement;
+import net.minecraft.world.level.levelgen.structure.pools.StructureTemplatePool;
+import net.minecraft.world.level.levelgen.structure.templatesystem.LiquidSettings;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Well structure made of a top piece and a bottom piece hanging below it.
+ *
+ * Templates are still picked from the datapack's template pools, but the
+ * pieces are placed directly instead of going through JigsawPlacement: the
+ * bottom piece sits at a fixed offset from the top piece (the offset between
+ * their jigsaw blocks, given in the unrotated frame of the top template).
+ * Start height and heightmap projection follow the vanilla jigsaw structure.
+ * Only the variant that the {@link WellVariantTable} picks for a candidate
+ * looks for a generation point there.
+ * With avoid_aquifer_water, a candidate whose footprint meets water in the
+ * noise (sea level or aquifer) below the surface is rejected before any piece
+ * is placed (see {@link WellWaterSampler}).
+ */
+public class WellStructure extends Structure {
+    public static final MapCodec<WellStructure> CODEC = RecordCodecBuilder.mapCodec(instance -> instance.group(
+            settingsCodec(instance),
+            StructureTemplatePool.CODEC.fieldOf("start_pool").forGetter(structure -> structure.startPool),
+            StructureTemplatePool.CODEC.fieldOf("bottom_pool").forGetter(structure -> structure.bottomPool),
+            BlockPos.CODEC.fieldOf("bottom_offset").forGetter(structure -> structure.bottomOffset),
+            HeightProvider.CODEC.fieldOf("start_height").forGetter(structure -> structure.startHeight),
+            Heightmap.Types.CODEC.optionalFieldOf("project_start_to_heightmap")
+                    .forGetter(structure -> structure.projectStartToHeightmap),
+            Codec.BOOL.optionalFieldOf("avoid_aquifer_water", false)
+                    .forGetter(structure -> structure.avoidAquiferWater)
+    ).apply(instance, WellStructure::new));
+
+    private final Holder<StructureTemplatePool> startPool;
+    private final Holder<StructureTemplatePool> bottomPool;
+    private final BlockPos bottomOffset;
+    private final HeightProvider startHeight;
+    private final Optional<Heightmap.Types> projectStartToHeightmap;
+    private final boolean avoidAquiferWater;
+
+    public WellStructure(StructureSettings settings,
+                         Holder<StructureTemplatePool> startPool,
+                         Holder<StructureTemplatePool> bottomPool,
+                         BlockPos bottomOffset,
+                         HeightProvider startHeight,
+                         Optional<Heightmap.Types> projectStartToHeightmap,
+                         boolean avoidAquiferWater) {
+        super(settings);
+        this.startPool = startPool;
+        this.bottomPool = bottomPool;
+        this.bottomOffset = bottomOffset;
+        this.startHeight = startHeight;
+        this.projectStartToHeightmap = projectStartToHeightmap;
+        this.avoidAquiferWater = avoidAquiferWater;
+    }
+
+    @Override
+    public Optional<GenerationStub> findGenerationPoint(GenerationContext context) {
+        WellVariantTable variants = WellVariantTable.forStructure(context.registryAccess(), this);
+        if (variants != null) {
+            Holder<Structure> picked = variants.pick(context.chunkGenerator(), context.biomeSource(),
+                    context.randomState(), context.heightAccessor(), context.seed(), context.chunkPos());
+            if (picked == null || picked.value() != this) {
+                // Another well of the structure set was picked for this candidate
+                return Optional.empty();
+            }
+        }
+
+        WorldgenRandom random = context.random();
+        ChunkPos chunkPos = context.chunkPos();
+        int startY = startHeight.sample(random, new WorldGenerationContext(context.chunkGenerator(), context.heightAccessor()));
+
+        // Rotation before the start template, in the order JigsawPlacement draws them
+        Rotation rotation = Rotation.getRandom(random);
+        StructurePoolElement topElement = startPool.value().getRandomTemplate(random);
+        if (topElement == EmptyPoolElement.INSTANCE) {
+            return Optional.empty();
+        }
+
+        StructureTemplateManager templateManager = context.structureTemplateManager();
+        BlockPos startPos = new BlockPos(chunkPos.getMinBlockX(), startY, chunkPos.getMinBlockZ());
+        PoolElementStructurePiece top = createPiece(templateManager, topElement, startPos,
+                topElement.getGroundLevelDelta(), rotation);
+
+        BoundingBox box = top.getBoundingBox();
+        int centerX = (box.maxX() + box.minX()) / 2;
+        int centerZ = (box.maxZ() + box.minZ()) / 2;
+        int surfaceY = projectStartToHeightmap
+                .map(heightmap -> startY + context.chunkGenerator().getFirstFreeHeight(
+                        centerX, centerZ, heightmap, context.heightAccessor(), context.randomState()))
+                .orElse(startY);
+        top.move(0, surfaceY - (box.minY() + top.getGroundLevelDelta()), 0);
+
+        StructurePoolElement bottomElement = bottomPool.value().getRandomTemplate(random);
+        PoolElementStructurePiece bottom = bottomElement == EmptyPoolElement.INSTANCE ? null
+                : createPiece(templateManager, bottomElement, top.getPosition().offset(bottomOffset.rotate(rotation)),
+                        // Shares the top piece's ground level, as a rigid jigsaw attachment would
+                        top.getGroundLevelDelta() - bottomOffset.getY(), rotation);
+
+        if (avoidAquiferWater && WellWaterSampler.intersectsWater(context, bottom == null ? top.getBoundingBox()
+                : BoundingBox.encapsulatingBoxes(List.of(top.getBoundingBox(), bottom.getBoundingBox())).orElseThrow(),
+                surfaceY)) {
+            // Rejecting here is cheaper than clearing the water and repairing waterlogging after placement
+            return Optional.empty();
+        }
+
+        return Optional.of(new GenerationStub(new BlockPos(centerX, surfaceY, centerZ), builder -> {
+            builder.addPiece(top);
+            if (bottom != null) {
+                builder.addPiece(bottom);
+            }
+        }));
+    }
+
+    private static PoolElementStructurePiece createPiece(StructureTemplateManager templateManager,
+                                                         StructurePoolElement element, BlockPos pos,
+                                                         int groundLevelDelta, Rotation rotation) {
+        return new PoolElementStructurePiece(templateManager, element, pos, groundLevelDelta, rotation,
+                element.getBoundingBox(templateManager, pos, rotation), LiquidSettings.APPLY_WATERLOGGING);
+    }
+
+    /**
+     * Settings a well piece of this element is placed with, as SinglePoolElement
+     * builds them; used to warm up the processed template cache.
+     */
+    public static StructurePlaceSettings placeSettings(SinglePoolElement element, Rotation rotation) {
+        return element.getSettings(rotation, BoundingBox.infinite(), LiquidSettings.APPLY_WATERLOGGING, false);
+    }
+
+    @Override
+    public StructureType<?> type() {
+        return ModStructureTypes.WELL.get();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.data;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraft.world.level.saveddata.SavedDataType;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+
+/**
+ * World-level SavedData holding the running well pre-generation, so that it
+ * resumes after a restart.
+ */
+public class WellPregenData extends SavedData {
+    private static final String DATA_NAME = "weatheredwells_pregen";
+
+    @Nullable
+    private WellPregenProgress progress;
+
+    private static final Codec<WellPregenProgress> PROGRESS_CODEC = RecordCodecBuilder.create(instance ->
+            instance.group(
+                    ResourceLocation.CODEC.fieldOf("dimension").forGetter(WellPregenProgress::dimension),
+                    Codec.INT.fieldOf("origin_x").forGetter(WellPregenProgress::originX),
+                    Codec.INT.fieldOf("origin_z").forGetter(WellPregenProgress::originZ),
+                    Codec.INT.fieldOf("radius").forGetter(WellPregenProgress::radius),
+                    Codec.INT.fieldOf("max_mspt").forGetter(WellPregenProgress::maxMspt),
+                    Codec.INT.fieldOf("ring").forGetter(WellPregenProgress::ring),
+                    Codec.INT.fieldOf("ring_index").forGetter(WellPregenProgress::ringIndex),
+                    Codec.LONG.fieldOf("chunks").forGetter(WellPregenProgress::chunks),
+                    Codec.INT.fieldOf("wells").forGetter(WellPregenProgress::wells)
+            ).apply(instance, WellPregenProgress::new)
+    );
+
+    public static final Codec<WellPregenData> CODEC = RecordCodecBuilder.create(instance ->
+            instance.group(
+                    PROGRESS_CODEC.optionalFieldOf("progress")
+                            .forGetter(data -> Optional.ofNullable(data.progress))
+            ).apply(instance, progress -> {
+                WellPregenData data = new WellPregenData();
+                data.progress = progress.orElse(null);
+                return data;
+            })
+    );
+
+    public static final SavedDataType<WellPregenData> TYPE = new SavedDataType<>(
+            DATA_NAME,
+            WellPregenData::new,
+            CODEC,
+            null
+    );
+
+    public static WellPregenData get(ServerLevel level) {
+        return level.getDataStorage().computeIfAbsent(TYPE);
+    }
+
+    @Nullable
+    public WellPregenProgress getProgress() {
+        return progress;
+    }
+
+    public void setProgress(@Nullable WellPregenProgress progress) {
+        this.progress = progress;
+        setDirty();
+    }
+}
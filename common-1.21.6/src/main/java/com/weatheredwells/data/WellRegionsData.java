@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.data;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraft.world.level.saveddata.SavedDataType;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * SavedData listing the {@link WellIndex} regions of a dimension that hold
+ * wells, so that queries never create empty {@link WellRegionData}.
+ */
+public class WellRegionsData extends SavedData {
+    private static final String DATA_NAME = "weatheredwells_wells";
+
+    private final Set<Long> regions = new HashSet<>();
+
+    public static final Codec<WellRegionsData> CODEC = RecordCodecBuilder.create(instance ->
+            instance.group(
+                    Codec.LONG.listOf()
+                            .fieldOf("regions")
+                            .forGetter(data -> List.copyOf(data.regions))
+            ).apply(instance, regions -> {
+                WellRegionsData data = new WellRegionsData();
+                data.regions.addAll(regions);
+                return data;
+            })
+    );
+
+    public static final SavedDataType<WellRegionsData> TYPE = new SavedDataType<>(
+            DATA_NAME,
+            WellRegionsData::new,
+            CODEC,
+            null
+    );
+
+    public static WellRegionsData get(ServerLevel level) {
+        return level.getDataStorage().computeIfAbsent(TYPE);
+    }
+
+    public int size() {
+        return regions.size();
+    }
+
+    public Set<Long> regions() {
+        return Collections.unmodifiableSet(regions);
+    }
+
+    public boolean contains(long region) {
+        return regions.contains(region);
+    }
+
+    public void add(long region) {
+        if (regions.add(region)) {
+            setDirty();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.mixin;
+
+import com.mojang.datafixers.util.Pair;
+import com.weatheredwells.worldgen.WellLocator;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.HolderSet;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.chunk.ChunkGenerator;
+import net.minecraft.world.level.levelgen.structure.Structure;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Mixin to answer /locate searches for weathered wells with the
+ * {@link WellLocator} instead of the vanilla ring search, which samples
+ * every variant of every candidate on the server thread.
+ *
+ * Searches that skip known structures (explorer maps) still take the vanilla
+ * path: only it tracks which starts have already been referenced, and doing
+ * so needs the candidate chunks' structure data.
+ */
+@Mixin(ChunkGenerator.class)
+public abstract class ChunkGeneratorMixin {
+
+    @Inject(method = "findNearestMapStructure", at = @At("HEAD"), cancellable = true)
+    private void locateWells(
+            ServerLevel level,
+            HolderSet<Structure> structures,
+            BlockPos pos,
+            int searchRadius,
+            boolean skipKnownStructures,
+            CallbackInfoReturnable<Pair<BlockPos, Holder<Structure>>> cir) {
+
+        if (skipKnownStructures) {
+            return;
+        }
+        WellLocator.Search search = WellLocator.prepareFor(level, structures);
+        if (search != null) {
+            cir.setReturnValue(search.nearestMapStructure(structures, pos, searchRadius));
+        }
+    }
+}
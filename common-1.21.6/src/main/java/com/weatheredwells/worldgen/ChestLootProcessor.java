@@ -18,7 +18,9 @@
 package com.weatheredwells.worldgen;
 
 import com.mojang.serialization.MapCodec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
 import com.weatheredwells.WeatheredWells;
+import com.weatheredwells.registry.ModProcessors;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.resources.ResourceLocation;
@@ -32,17 +34,24 @@ import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemp
 import org.jetbrains.annotations.Nullable;
 
 /**
- * Structure processor that automatically assigns the well loot table
- * to any chest block placed by the structure.
+ * Structure processor that automatically assigns a loot table (the well loot
+ * table unless "loot_table" is set) to any chest block placed by the structure.
  */
 public class ChestLootProcessor extends StructureProcessor {
-    public static final ChestLootProcessor INSTANCE = new ChestLootProcessor();
-    public static final MapCodec<ChestLootProcessor> CODEC = MapCodec.unit(INSTANCE);
+    public static final ResourceLocation DEFAULT_LOOT_TABLE =
+            ResourceLocation.fromNamespaceAndPath(WeatheredWells.MOD_ID, "chests/well_chest");
 
-    public static StructureProcessorType<ChestLootProcessor> TYPE;
+    public static final ChestLootProcessor INSTANCE = new ChestLootProcessor(DEFAULT_LOOT_TABLE);
+    public static final MapCodec<ChestLootProcessor> CODEC = RecordCodecBuilder.mapCodec(instance -> instance.group(
+            ResourceLocation.CODEC.optionalFieldOf("loot_table", DEFAULT_LOOT_TABLE)
+                    .forGetter(processor -> processor.chestLoot.lootTable())
+    ).apply(instance, ChestLootProcessor::new));
 
-    private static final ResourceLocation LOOT_TABLE =
-            ResourceLocation.fromNamespaceAndPath(WeatheredWells.MOD_ID, "chests/well_chest");
+    private final WellChestLoot chestLoot;
+
+    public ChestLootProcessor(ResourceLocation lootTable) {
+        this.chestLoot = new WellChestLoot(lootTable);
+    }
 
     @Nullable
     @Override
@@ -56,10 +65,10 @@ public class ChestLootProcessor extends StructureProcessor {
 
         BlockState state = modifiedInfo.state();
         if (state.is(Blocks.CHEST)) {
-            CompoundTag nbt = modifiedInfo.nbt() != null ? modifiedInfo.nbt().copy() : new CompoundTag();
-            nbt.putString("LootTable", LOOT_TABLE.toString());
-            nbt.putLong("LootTableSeed", settings.getRandom(modifiedInfo.pos()).nextLong());
-            return new StructureTemplate.StructureBlockInfo(modifiedInfo.pos(), state, nbt);
+            CompoundTag nbt = chestLoot.apply(modifiedInfo.nbt(), WellChestLoot.worldSeed(level), modifiedInfo.pos());
+            return nbt == modifiedInfo.nbt()
+                    ? modifiedInfo
+                    : new StructureTemplate.StructureBlockInfo(modifiedInfo.pos(), state, nbt);
         }
 
         return modifiedInfo;
@@ -67,6 +76,6 @@ public class ChestLootProcessor extends StructureProcessor {
 
     @Override
     protected StructureProcessorType<?> getType() {
-        return TYPE;
+        return ModProcessors.CHEST_LOOT.get();
     }
 }
@@ -17,12 +17,14 @@
  */
 package com.weatheredwells;
 
+import com.weatheredwells.command.WeatheredWellsCommands;
 import com.weatheredwells.events.WeatheredWellsEvents;
 import com.weatheredwells.registry.ModCreativeTabs;
 import com.weatheredwells.registry.ModEffects;
 import com.weatheredwells.registry.ModItems;
 import com.weatheredwells.registry.ModParticles;
 import com.weatheredwells.registry.ModProcessors;
+import com.weatheredwells.registry.ModStructureTypes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,9 +37,11 @@ public class WeatheredWells {
         ModEffects.register();
         ModParticles.register();
         ModProcessors.register();
+        ModStructureTypes.register();
         ModCreativeTabs.register();
 
         WeatheredWellsEvents.register();
+        WeatheredWellsCommands.register();
 
         LOGGER.info("Weathered Wells initialized");
     }
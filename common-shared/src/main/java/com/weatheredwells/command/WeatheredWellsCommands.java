@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.command;
+
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.LongArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.weatheredwells.WeatheredWells;
+import com.weatheredwells.data.WellIndex;
+import com.weatheredwells.data.WellRecord;
+import com.weatheredwells.effects.WaterHealingLoad;
+import com.weatheredwells.worldgen.WellDistributionSimulator;
+import com.weatheredwells.worldgen.WellLocator;
+import com.weatheredwells.worldgen.WellPregenerator;
+import dev.architectury.event.events.common.CommandRegistrationEvent;
+import net.minecraft.ChatFormatting;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.ComponentUtils;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.storage.LevelResource;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Registers the /weatheredwells command:
+ * - locate [radius]: finds the nearest weathered well without generating chunks
+ * - nearest [radius]: finds the nearest already generated well in the WellIndex
+ * - simulate <radius> [spacing separation] [seed <seed>]: predicts the well distribution, on the
+ *   world seed or another one, and writes it as CSV
+ * - pregen <radius> [max_mspt] | stop | status: generates the chunks of wells within the radius while
+ *   the server's tick time stays under max_mspt
+ * - healing: shows how far water healing effects are degraded under server load
+ */
+public class WeatheredWellsCommands {
+    private static final int DEFAULT_LOCATE_RADIUS = 6400;
+    private static final int MAX_LOCATE_RADIUS = 30000;
+    private static final int MAX_SIMULATE_RADIUS = 100000;
+    private static final int MAX_PREGEN_MSPT = 1000;
+
+    public static void register() {
+        CommandRegistrationEvent.EVENT.register((dispatcher, registry, selection) -> dispatcher.register(
+                Commands.literal(WeatheredWells.MOD_ID)
+                        .requires(source -> source.hasPermission(2))
+                        .then(Commands.literal("locate")
+                                .executes(context -> locate(context, DEFAULT_LOCATE_RADIUS))
+                                .then(Commands.argument("radius", IntegerArgumentType.integer(1, MAX_LOCATE_RADIUS))
+                                        .executes(context -> locate(context,
+                                                IntegerArgumentType.getInteger(context, "radius")))))
+                        .then(Commands.literal("nearest")
+                                .executes(context -> nearest(context, DEFAULT_LOCATE_RADIUS))
+                                .then(Commands.argument("radius", IntegerArgumentType.integer(1, MAX_LOCATE_RADIUS))
+                                        .executes(context -> nearest(context,
+                                                IntegerArgumentType.getInteger(context, "radius")))))
+                        .then(Commands.literal("simulate")
+                                .then(Commands.argument("radius", IntegerArgumentType.integer(1, MAX_SIMULATE_RADIUS))
+                                        .executes(context -> simulate(context,
+                                                IntegerArgumentType.getInteger(context, "radius"), 0, 0, null))
+                                        .then(Commands.literal("seed")
+                                                .then(Commands.argument("seed", LongArgumentType.longArg())
+                                                        .executes(context -> simulate(context,
+                                                                IntegerArgumentType.getInteger(context, "radius"), 0, 0,
+                                                                LongArgumentType.getLong(context, "seed")))))
+                                        .then(Commands.argument("spacing", IntegerArgumentType.integer(1, 4096))
+                                                .then(Commands.argument("separation", IntegerArgumentType.integer(0, 4095))
+                                                        .executes(context -> simulate(context,
+                                                                IntegerArgumentType.getInteger(context, "radius"),
+                                                                IntegerArgumentType.getInteger(context, "spacing"),
+                                                                IntegerArgumentType.getInteger(context, "separation"),
+                                                                null))
+                                                        .then(Commands.literal("seed")
+                                                                .then(Commands.argument("seed", LongArgumentType.longArg())
+                                                                        .executes(context -> simulate(context,
+                                                                                IntegerArgumentType.getInteger(context, "radius"),
+                                                                                IntegerArgumentType.getInteger(context, "spacing"),
+                                                                                IntegerArgumentType.getInteger(context, "separation"),
+                                                                                LongArgumentType.getLong(context, "seed")))))))))
+                        .then(Commands.literal("pregen")
+                                .then(Commands.literal("stop")
+                                        .executes(WeatheredWellsCommands::stopPregen))
+                                .then(Commands.literal("status")
+                                        .executes(WeatheredWellsCommands::pregenStatus))
+                                .then(Commands.argument("radius", IntegerArgumentType.integer(1, MAX_SIMULATE_RADIUS))
+                                        .executes(context -> pregen(context,
+                                                IntegerArgumentType.getInteger(context, "radius"),
+                                                WellPregenerator.DEFAULT_MAX_MSPT))
+                                        .then(Commands.argument("max_mspt", IntegerArgumentType.integer(1, MAX_PREGEN_MSPT))
+                                                .executes(context -> pregen(context,
+                                                        IntegerArgumentType.getInteger(context, "radius"),
+                                                        IntegerArgumentType.getInteger(context, "max_mspt"))))))
+                        .then(Commands.literal("healing")
+                                .executes(WeatheredWellsCommands::healingStatus)));
+    }
+
+    private static int locate(CommandContext<CommandSourceStack> context, int radius) {
+        CommandSourceStack source = context.getSource();
+        MinecraftServer server = source.getServer();
+        BlockPos origin = BlockPos.containing(source.getPosition());
+
+        source.sendSuccess(() -> Component.translatable("commands.weatheredwells.locate.searching"), false);
+        WellLocator.locate(source.getLevel(), origin, radius).whenComplete((result, error) -> server.execute(() -> {
+            if (error != null) {
+                WeatheredWells.LOGGER.error("Failed to locate a weathered well", error);
+                source.sendFailure(Component.translatable("commands.weatheredwells.locate.failed", radius));
+            } else if (result.isEmpty()) {
+                source.sendFailure(Component.translatable("commands.weatheredwells.locate.failed", radius));
+            } else {
+                int x = result.get().getMinBlockX();
+                int z = result.get().getMinBlockZ();
+                int distance = Mth.floor(Math.sqrt(
+                        (double) (x - origin.getX()) * (x - origin.getX()) + (double) (z - origin.getZ()) * (z - origin.getZ())));
+                Component coordinates = ComponentUtils.wrapInSquareBrackets(
+                        Component.translatable("chat.coordinates", x, "~", z)).withStyle(ChatFormatting.GREEN);
+                source.sendSuccess(() -> Component.translatable(
+                        "commands.weatheredwells.locate.success", coordinates, distance), false);
+            }
+        }));
+        return 1;
+    }
+
+    private static int nearest(CommandContext<CommandSourceStack> context, int radius) {
+        CommandSourceStack source = context.getSource();
+        BlockPos origin = BlockPos.containing(source.getPosition());
+
+        Optional<WellRecord> result = WellIndex.nearest(source.getLevel(), origin, radius);
+        if (result.isEmpty()) {
+            source.sendFailure(Component.translatable("commands.weatheredwells.nearest.failed", radius));
+            return 0;
+        }
+
+        BlockPos pos = result.get().pos();
+        int distance = Mth.floor(Math.sqrt(result.get().distanceSqr(origin)));
+        Component coordinates = ComponentUtils.wrapInSquareBrackets(
+                Component.translatable("chat.coordinates", pos.getX(), pos.getY(), pos.getZ()))
+                .withStyle(ChatFormatting.GREEN);
+        source.sendSuccess(() -> Component.translatable("commands.weatheredwells.nearest.success",
+                result.get().variant().toString(), coordinates, distance), false);
+        return 1;
+    }
+
+    /** Spacing 0 simulates the structure set as loaded; a null seed simulates the level's own seed. */
+    private static int simulate(CommandContext<CommandSourceStack> context, int radius, int spacing, int separation,
+                                @Nullable Long seed) {
+        CommandSourceStack source = context.getSource();
+        MinecraftServer server = source.getServer();
+        ServerLevel level = source.getLevel();
+        BlockPos origin = BlockPos.containing(source.getPosition());
+
+        WellLocator.Search search = WellLocator.prepare(level);
+        if (search == null) {
+            source.sendFailure(Component.translatable("commands.weatheredwells.simulate.unavailable"));
+            return 0;
+        }
+        if (spacing > 0) {
+            if (separation >= spacing) {
+                source.sendFailure(Component.translatable("commands.weatheredwells.simulate.invalid_spread"));
+                return 0;
+            }
+            search = search.withSpread(spacing, separation);
+        }
+        if (seed != null) {
+            search = search.withSeed(seed);
+        }
+
+        WellLocator.Search simulated = search;
+        Path csv = server.getWorldPath(LevelResource.ROOT).resolve(WeatheredWells.MOD_ID)
+                .resolve("simulation_" + level.dimension().location().getPath() + ".csv");
+        source.sendSuccess(() -> Component.translatable("commands.weatheredwells.simulate.running",
+                radius, simulated.state().getLevelSeed()), false);
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return WellDistributionSimulator.simulate(simulated, origin, radius, csv);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, ForkJoinPool.commonPool()).whenComplete((result, error) -> server.execute(() -> {
+            if (error != null) {
+                WeatheredWells.LOGGER.error("Failed to simulate the weathered well distribution", error);
+                source.sendFailure(Component.translatable("commands.weatheredwells.simulate.failed"));
+                return;
+            }
+            source.sendSuccess(() -> Component.translatable("commands.weatheredwells.simulate.success",
+                    result.candidates(), result.placed(), result.biomeMatches(), result.wells(),
+                    String.format(Locale.ROOT, "%.3f", result.wellsPerKm2()), result.millis()), false);
+            result.variants().forEach((variant, count) -> source.sendSuccess(() -> Component.translatable(
+                    "commands.weatheredwells.simulate.variant", variant, count), false));
+            source.sendSuccess(() -> Component.translatable("commands.weatheredwells.simulate.csv",
+                    result.csv().toString()), false);
+        }));
+        return 1;
+    }
+
+    /** New wells are only taken on while the average tick time is under maxMspt milliseconds. */
+    private static int pregen(CommandContext<CommandSourceStack> context, int radius, int maxMspt) {
+        CommandSourceStack source = context.getSource();
+        if (WellPregenerator.isRunning()) {
+            source.sendFailure(Component.translatable("commands.weatheredwells.pregen.running"));
+            return 0;
+        }
+        if (!WellPregenerator.start(source.getLevel(), BlockPos.containing(source.getPosition()),
+                radius, maxMspt, source)) {
+            source.sendFailure(Component.translatable("commands.weatheredwells.pregen.unavailable"));
+            return 0;
+        }
+        source.sendSuccess(() -> Component.translatable("commands.weatheredwells.pregen.started",
+                radius, maxMspt), true);
+        return 1;
+    }
+
+    private static int stopPregen(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        if (!WellPregenerator.isRunning()) {
+            source.sendFailure(Component.translatable("commands.weatheredwells.pregen.idle"));
+            return 0;
+        }
+        WellPregenerator.stop(source.getServer());
+        source.sendSuccess(() -> Component.translatable("commands.weatheredwells.pregen.stopped"), true);
+        return 1;
+    }
+
+    private static int pregenStatus(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        Component status = WellPregenerator.status();
+        if (status == null) {
+            source.sendFailure(Component.translatable("commands.weatheredwells.pregen.idle"));
+            return 0;
+        }
+        source.sendSuccess(() -> status, false);
+        return 1;
+    }
+
+    private static int healingStatus(CommandContext<CommandSourceStack> context) {
+        WaterHealingLoad.Level level = WaterHealingLoad.level();
+        String averageTick = String.format(Locale.ROOT, "%.1f", WaterHealingLoad.averageTickMs());
+        context.getSource().sendSuccess(() -> Component.translatable("commands.weatheredwells.healing.status",
+                Component.translatable(level.translationKey()), averageTick), false);
+        return 1;
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.data;
+
+import com.weatheredwells.WeatheredWells;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.levelgen.structure.PoolElementStructurePiece;
+import net.minecraft.world.level.levelgen.structure.StructurePiece;
+import net.minecraft.world.level.levelgen.structure.StructureStart;
+import net.minecraft.world.level.levelgen.structure.pools.SinglePoolElement;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Per-dimension index of generated wells.
+ *
+ * Wells are filed by 512x512 block region, and 32x32 regions share one
+ * {@link WellRegionData} file so that a large world keeps a few dozen files
+ * rather than one per region; {@link WellRegionsData} lists the regions that
+ * hold wells. Wells are recorded from worldgen threads once their structure
+ * start has been placed in its own chunk, queued, and written into the saved
+ * data on the server thread by {@link #flush}.
+ *
+ * Queries run on the server thread and visit the regions overlapping the
+ * searched area, or, when fewer regions hold wells than the area covers, the
+ * regions that hold wells. A query therefore costs at most
+ * min(regions in the area, regions holding wells) region lookups plus a linear
+ * scan of the wells in the regions visited; the well set places at most one
+ * well per 320-block grid cell, so a region holds only a handful.
+ *
+ * Wells queued since the last flush are also flushed whenever a level saves,
+ * so those placed while the server stops still reach the final save.
+ */
+public class WellIndex {
+    public static final int REGION_SHIFT = 9;
+    private static final int REGION_SIZE = 1 << REGION_SHIFT;
+    /** Regions per {@link WellRegionData} file along each axis: 32 (16384 blocks). */
+    private static final int SHARD_SHIFT = 5;
+    private static final String TOP_SUFFIX = "_top";
+
+    private static final Queue<Pending> PENDING = new ConcurrentLinkedQueue<>();
+
+    /** Queues a well for the index; safe to call from any thread. */
+    public static void record(ResourceKey<Level> dimension, StructureStart start) {
+        BoundingBox box = start.getBoundingBox();
+        BlockPos pos = new BlockPos((box.minX() + box.maxX()) / 2, box.maxY(), (box.minZ() + box.maxZ()) / 2);
+        PENDING.add(new Pending(dimension,
+                new WellRecord(start.getChunkPos().toLong(), pos, variantOf(start.getPieces()), box)));
+    }
+
+    /** Writes queued wells into the saved data; server thread only. */
+    public static void flush(MinecraftServer server) {
+        Pending pending;
+        while ((pending = PENDING.poll()) != null) {
+            ServerLevel level = server.getLevel(pending.dimension());
+            if (level != null) {
+                long region = regionOf(pending.record().pos().getX(), pending.record().pos().getZ());
+                WellRegionData.get(level, shardOf(region)).put(pending.record());
+                WellRegionsData.get(level).add(region);
+            }
+        }
+    }
+
+    public static void clear() {
+        if (!PENDING.isEmpty()) {
+            WeatheredWells.LOGGER.warn("Dropping {} wells queued after the last save", PENDING.size());
+        }
+        PENDING.clear();
+    }
+
+    public static Optional<WellRecord> nearest(ServerLevel level, BlockPos from, int maxDistance) {
+        WellRegionsData regions = WellRegionsData.get(level);
+        int centerX = from.getX() >> REGION_SHIFT;
+        int centerZ = from.getZ() >> REGION_SHIFT;
+        int maxRing = (maxDistance >> REGION_SHIFT) + 1;
+        long maxDistanceSqr = (long) maxDistance * maxDistance;
+        long side = 2L * maxRing + 1;
+        if (side * side > regions.size()) {
+            // Fewer regions hold wells than the rings would probe, so visit those directly
+            return nearestIn(level, regions.regions(), from, maxDistanceSqr);
+        }
+
+        WellRecord nearest = null;
+        long nearestDistanceSqr = Long.MAX_VALUE;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Every region of this ring is at least (ring - 1) regions away from the origin
+            long ringDistance = (long) Math.max(0, ring - 1) * REGION_SIZE;
+            if (nearest != null && ringDistance * ringDistance > nearestDistanceSqr) {
+                break;
+            }
+
+            for (int x = -ring; x <= ring; x++) {
+                for (int z = -ring; z <= ring; z++) {
+                    if (Math.abs(x) != ring && Math.abs(z) != ring) {
+                        continue;
+                    }
+                    long region = ChunkPos.asLong(centerX + x, centerZ + z);
+                    if (!regions.contains(region)) {
+                        continue;
+                    }
+                    for (WellRecord record : records(level, region)) {
+                        long distanceSqr = record.distanceSqr(from);
+                        if (distanceSqr <= maxDistanceSqr && distanceSqr < nearestDistanceSqr) {
+                            nearest = record;
+                            nearestDistanceSqr = distanceSqr;
+                        }
+                    }
+                }
+            }
+        }
+        return Optional.ofNullable(nearest);
+    }
+
+    private static Optional<WellRecord> nearestIn(ServerLevel level, Collection<Long> regions, BlockPos from,
+                                                  long maxDistanceSqr) {
+        WellRecord nearest = null;
+        long nearestDistanceSqr = Long.MAX_VALUE;
+        for (long region : regions) {
+            // No well of the region is closer than the region itself
+            long regionDistanceSqr = distanceSqr(region, from);
+            if (regionDistanceSqr > maxDistanceSqr || regionDistanceSqr >= nearestDistanceSqr) {
+                continue;
+            }
+            for (WellRecord record : records(level, region)) {
+                long distanceSqr = record.distanceSqr(from);
+                if (distanceSqr <= maxDistanceSqr && distanceSqr < nearestDistanceSqr) {
+                    nearest = record;
+                    nearestDistanceSqr = distanceSqr;
+                }
+            }
+        }
+        return Optional.ofNullable(nearest);
+    }
+
+    /** Horizontal distance from the position to the nearest block of the region, squared. */
+    private static long distanceSqr(long region, BlockPos from) {
+        long minX = (long) ChunkPos.getX(region) << REGION_SHIFT;
+        long minZ = (long) ChunkPos.getZ(region) << REGION_SHIFT;
+        long dx = Math.max(0, Math.max(minX - from.getX(), from.getX() - (minX + REGION_SIZE - 1)));
+        long dz = Math.max(0, Math.max(minZ - from.getZ(), from.getZ() - (minZ + REGION_SIZE - 1)));
+        return dx * dx + dz * dz;
+    }
+
+    /** Wells within the horizontal radius, nearest first. */
+    public static List<WellRecord> withinRadius(ServerLevel level, BlockPos from, int radius) {
+        long radiusSqr = (long) radius * radius;
+        List<WellRecord> result = new ArrayList<>();
+        forEachRegion(level, from.getX() - radius, from.getZ() - radius, from.getX() + radius, from.getZ() + radius,
+                record -> {
+                    if (record.distanceSqr(from) <= radiusSqr) {
+                        result.add(record);
+                    }
+                });
+        result.sort(Comparator.comparingLong(record -> record.distanceSqr(from)));
+        return result;
+    }
+
+    /** Wells whose bounding box intersects the given box. */
+    public static List<WellRecord> within(ServerLevel level, BoundingBox box) {
+        List<WellRecord> result = new ArrayList<>();
+        forEachRegion(level, box.minX(), box.minZ(), box.maxX(), box.maxZ(), record -> {
+            if (record.box().intersects(box)) {
+                result.add(record);
+            }
+        });
+        return result;
+    }
+
+    private static void forEachRegion(ServerLevel level, int minX, int minZ, int maxX, int maxZ,
+                                      Consumer<WellRecord> consumer) {
+        WellRegionsData regions = WellRegionsData.get(level);
+        // Records are filed by their top center, while a box can reach into the next region
+        int minRegionX = (minX - REGION_SIZE) >> REGION_SHIFT;
+        int minRegionZ = (minZ - REGION_SIZE) >> REGION_SHIFT;
+        int maxRegionX = (maxX + REGION_SIZE) >> REGION_SHIFT;
+        int maxRegionZ = (maxZ + REGION_SIZE) >> REGION_SHIFT;
+        if ((long) (maxRegionX - minRegionX + 1) * (maxRegionZ - minRegionZ + 1) > regions.size()) {
+            for (long region : regions.regions()) {
+                int x = ChunkPos.getX(region);
+                int z = ChunkPos.getZ(region);
+                if (x >= minRegionX && x <= maxRegionX && z >= minRegionZ && z <= maxRegionZ) {
+                    records(level, region).forEach(consumer);
+                }
+            }
+            return;
+        }
+        for (int x = minRegionX; x <= maxRegionX; x++) {
+            for (int z = minRegionZ; z <= maxRegionZ; z++) {
+                long region = ChunkPos.asLong(x, z);
+                if (regions.contains(region)) {
+                    records(level, region).forEach(consumer);
+                }
+            }
+        }
+    }
+
+    private static Collection<WellRecord> records(ServerLevel level, long region) {
+        return WellRegionData.get(level, shardOf(region)).records(region);
+    }
+
+    public static long regionOf(int blockX, int blockZ) {
+        return ChunkPos.asLong(blockX >> REGION_SHIFT, blockZ >> REGION_SHIFT);
+    }
+
+    private static long shardOf(long region) {
+        return ChunkPos.asLong(ChunkPos.getX(region) >> SHARD_SHIFT, ChunkPos.getZ(region) >> SHARD_SHIFT);
+    }
+
+    /** Template of the top piece, without its "_top" suffix (e.g. weatheredwells:dry_well). */
+    private static ResourceLocation variantOf(List<StructurePiece> pieces) {
+        for (StructurePiece piece : pieces) {
+            if (piece instanceof PoolElementStructurePiece poolPiece
+                    && poolPiece.getElement() instanceof SinglePoolElement element
+                    && element.template.left().isPresent()) {
+                ResourceLocation template = element.template.left().get();
+                String path = template.getPath();
+                return path.endsWith(TOP_SUFFIX)
+                        ? ResourceLocation.tryParse(template.getNamespace() + ":"
+                                + path.substring(0, path.length() - TOP_SUFFIX.length()))
+                        : template;
+            }
+        }
+        return ResourceLocation.tryParse("minecraft:empty");
+    }
+
+    private record Pending(ResourceKey<Level> dimension, WellRecord record) {
+    }
+}
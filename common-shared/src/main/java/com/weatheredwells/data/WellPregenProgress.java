@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.data;
+
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * Persisted state of a well pre-generation run: its area, the tick time (MSPT)
+ * under which it admits new cells, and the first grid cell not yet completed
+ * as a ring around the origin cell and an index in it.
+ */
+public record WellPregenProgress(ResourceLocation dimension, int originX, int originZ, int radius,
+                                 int maxMspt, int ring, int ringIndex, long chunks, int wells) {
+
+    public WellPregenProgress advance(int ring, int ringIndex, long chunks, int wells) {
+        return new WellPregenProgress(dimension, originX, originZ, radius, maxMspt, ring, ringIndex, chunks, wells);
+    }
+}
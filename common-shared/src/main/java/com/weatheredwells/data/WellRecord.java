@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.data;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+/**
+ * A generated well: the chunk of its structure start, the top center of its
+ * bounding box, its variant (template of the top piece) and its bounding box.
+ */
+public record WellRecord(long chunk, BlockPos pos, ResourceLocation variant, BoundingBox box) {
+    public static final Codec<WellRecord> CODEC = RecordCodecBuilder.create(instance ->
+            instance.group(
+                    Codec.LONG.fieldOf("chunk").forGetter(WellRecord::chunk),
+                    BlockPos.CODEC.fieldOf("pos").forGetter(WellRecord::pos),
+                    ResourceLocation.CODEC.fieldOf("variant").forGetter(WellRecord::variant),
+                    BoundingBox.CODEC.fieldOf("box").forGetter(WellRecord::box)
+            ).apply(instance, WellRecord::new)
+    );
+
+    /** Horizontal squared distance, as used by locate. */
+    public long distanceSqr(BlockPos from) {
+        long dx = pos.getX() - from.getX();
+        long dz = pos.getZ() - from.getZ();
+        return dx * dx + dz * dz;
+    }
+}
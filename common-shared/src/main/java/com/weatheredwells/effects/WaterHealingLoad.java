@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.effects;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.Locale;
+
+/**
+ * Degrades water healing effects while the server is under load.
+ *
+ * Tick time is measured between the server tick events and smoothed with an
+ * exponential moving average. Crossing a threshold raises the degradation
+ * level by one; it drops again once the average is {@link #HYSTERESIS_MS}
+ * below the threshold. Levels, in the order they kick in:
+ * - FEWER_PARTICLES: every other heal particle burst is dropped
+ * - NO_PARTICLES: heal particles are not sent
+ * - STAGGERED: heal deadlines are moved onto one of {@link #STAGGER_TICKS}
+ *   ticks picked by player hash, so heals of players that entered water
+ *   together are spread out instead of landing on the same tick
+ *
+ * The level is reported by /weatheredwells healing.
+ */
+public class WaterHealingLoad {
+    /**
+     * Divides every activation delay and heal interval, so a deadline that was
+     * moved once stays on its tick and the healing rate is unchanged.
+     */
+    public static final int STAGGER_TICKS = 5;
+
+    private static final double SMOOTHING = 0.05;
+    private static final double HYSTERESIS_MS = 5.0;
+
+    public enum Level {
+        NORMAL(0.0),
+        FEWER_PARTICLES(35.0),
+        NO_PARTICLES(42.0),
+        STAGGERED(48.0);
+
+        /** Average tick time in milliseconds at which this level is entered. */
+        private final double thresholdMs;
+
+        Level(double thresholdMs) {
+            this.thresholdMs = thresholdMs;
+        }
+
+        public String translationKey() {
+            return "commands.weatheredwells.healing.level." + name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final Level[] LEVELS = Level.values();
+
+    private static long tickStartNanos;
+    private static volatile double averageTickMs;
+    private static volatile Level level = Level.NORMAL;
+
+    public static void onServerTickStart(MinecraftServer server) {
+        tickStartNanos = System.nanoTime();
+    }
+
+    public static void onServerTickEnd(MinecraftServer server) {
+        double tickMs = (System.nanoTime() - tickStartNanos) / 1_000_000.0;
+        double average = averageTickMs + SMOOTHING * (tickMs - averageTickMs);
+        averageTickMs = average;
+
+        Level current = level;
+        int ordinal = current.ordinal();
+        if (ordinal + 1 < LEVELS.length && average >= LEVELS[ordinal + 1].thresholdMs) {
+            level = LEVELS[ordinal + 1];
+        } else if (ordinal > 0 && average < current.thresholdMs - HYSTERESIS_MS) {
+            level = LEVELS[ordinal - 1];
+        }
+    }
+
+    /** Tick out of every {@link #STAGGER_TICKS} that the player's heals are moved to. */
+    public static int staggerBucket(ServerPlayer player) {
+        return Math.floorMod(player.getUUID().hashCode(), STAGGER_TICKS);
+    }
+
+    public static Level level() {
+        return level;
+    }
+
+    public static double averageTickMs() {
+        return averageTickMs;
+    }
+
+    public static void clear() {
+        averageTickMs = 0.0;
+        level = Level.NORMAL;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.effects;
+
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import net.minecraft.network.protocol.game.ClientboundBundlePacket;
+import net.minecraft.network.protocol.game.ClientboundLevelParticlesPacket;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Heal particle bursts of one level tick, sent together.
+ *
+ * ServerLevel.sendParticles builds a packet and walks every player of the
+ * level for each burst. Here every burst's packet is built once, each player
+ * of the level is range-checked against all bursts in a single pass, and a
+ * player near several bursts gets them as one bundle packet. Particle
+ * settings are applied by the client, as for any particle packet.
+ */
+public class WaterHealingParticles {
+    /** Range of non-forced particle packets, as in ServerLevel.sendParticles. */
+    private static final double RANGE_SQR = 32.0 * 32.0;
+
+    /** x, y, z of each burst. */
+    private final DoubleArrayList bursts = new DoubleArrayList();
+    private final List<ClientboundLevelParticlesPacket> visible = new ArrayList<>();
+
+    public void add(ServerPlayer player) {
+        bursts.add(player.getX());
+        bursts.add(player.getY());
+        bursts.add(player.getZ());
+    }
+
+    public void send(ServerLevel level) {
+        if (bursts.isEmpty()) {
+            return;
+        }
+
+        int count = bursts.size() / 3;
+        List<ClientboundLevelParticlesPacket> packets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            packets.add(WaterHealingHandler.healParticles(
+                    bursts.getDouble(i * 3), bursts.getDouble(i * 3 + 1), bursts.getDouble(i * 3 + 2)));
+        }
+
+        List<ServerPlayer> receivers = level.players();
+        for (int r = 0; r < receivers.size(); r++) {
+            ServerPlayer receiver = receivers.get(r);
+            for (int i = 0; i < count; i++) {
+                if (receiver.distanceToSqr(bursts.getDouble(i * 3), bursts.getDouble(i * 3 + 1),
+                        bursts.getDouble(i * 3 + 2)) < RANGE_SQR) {
+                    visible.add(packets.get(i));
+                }
+            }
+            if (visible.size() == 1) {
+                receiver.connection.send(visible.get(0));
+            } else if (visible.size() > 1) {
+                // The bundle keeps the list it is given, so it gets its own copy
+                receiver.connection.send(new ClientboundBundlePacket(List.copyOf(visible)));
+            }
+            visible.clear();
+        }
+        bursts.clear();
+    }
+}
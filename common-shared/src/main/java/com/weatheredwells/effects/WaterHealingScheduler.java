@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.effects;
+
+import com.weatheredwells.data.PlayerBuffData;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Schedules water heals on a hashed timing wheel per dimension.
+ *
+ * A buffed player is put on the wheel of their dimension when they enter water
+ * (reported by ServerPlayerMixin), at the tick their activation delay ends, and
+ * put back one heal interval later after every heal. Leaving water only clears
+ * the player's deadline; entries whose deadline no longer matches are dropped
+ * when their slot comes up. Each level tick therefore only visits the players
+ * in one slot of its own wheel, regardless of how many players are online.
+ *
+ * Wheels are advanced from the level tick, so servers that tick dimensions in
+ * parallel also heal them in parallel; each wheel guards itself with its own
+ * lock. {@link #setEnabledDimensions} limits healing to some dimensions.
+ *
+ * Under server load, {@link WaterHealingLoad} thins out the heal particles and
+ * staggers the deadlines of new entries by player.
+ */
+public class WaterHealingScheduler {
+    public static final long UNSCHEDULED = -1L;
+
+    private static final Map<ResourceKey<Level>, Wheel> WHEELS = new ConcurrentHashMap<>();
+    private static volatile Predicate<ResourceKey<Level>> enabledDimensions = dimension -> true;
+
+    /**
+     * Selects the dimensions water healing runs in; players in other dimensions
+     * never heal and those levels skip the scheduler entirely. All by default.
+     */
+    public static void setEnabledDimensions(Predicate<ResourceKey<Level>> predicate) {
+        enabledDimensions = predicate;
+        WHEELS.keySet().removeIf(dimension -> !predicate.test(dimension));
+    }
+
+    public static boolean isEnabled(ResourceKey<Level> dimension) {
+        return enabledDimensions.test(dimension);
+    }
+
+    public static void onLevelTick(ServerLevel level) {
+        Wheel wheel = WHEELS.get(level.dimension());
+        if (wheel != null) {
+            wheel.tick(level);
+        }
+    }
+
+    /** Called when a player's water contact or dimension changes. */
+    public static void onWaterChanged(ServerPlayer player, boolean inWater) {
+        WaterHealingState state = (WaterHealingState) player;
+        state.weatheredwells$setHealDeadline(UNSCHEDULED);
+        if (!inWater) {
+            return;
+        }
+
+        if (state.weatheredwells$getLingeringLevel() == WaterHealingState.UNLOADED) {
+            PlayerBuffData data = PlayerBuffData.get(player.getServer().overworld());
+            state.weatheredwells$setBuffs(data.getLingeringLevel(player), data.hasAttunement(player));
+        }
+        Wheel wheel = wheelFor(player);
+        if (wheel != null && state.weatheredwells$getLingeringLevel() > 0) {
+            wheel.schedule(player, state, WaterHealingHandler.getActivationDelay(state.weatheredwells$hasAttunement()));
+        }
+    }
+
+    /** Updates the cached buffs; a player already in water starts healing right away. */
+    public static void onBuffsChanged(ServerPlayer player, int lingeringLevel, boolean attunement) {
+        WaterHealingState state = (WaterHealingState) player;
+        state.weatheredwells$setBuffs(lingeringLevel, attunement);
+        Wheel wheel = wheelFor(player);
+        if (wheel != null && lingeringLevel > 0 && player.isInWater()
+                && state.weatheredwells$getHealDeadline() == UNSCHEDULED) {
+            wheel.schedule(player, state, WaterHealingHandler.getActivationDelay(attunement));
+        }
+    }
+
+    public static void clear(ResourceKey<Level> dimension) {
+        WHEELS.remove(dimension);
+    }
+
+    public static void clear() {
+        WHEELS.clear();
+    }
+
+    @Nullable
+    private static Wheel wheelFor(ServerPlayer player) {
+        ResourceKey<Level> dimension = player.level().dimension();
+        if (!enabledDimensions.test(dimension)) {
+            return null;
+        }
+        return WHEELS.computeIfAbsent(dimension, key -> new Wheel());
+    }
+
+    private static final class Wheel {
+        /** Power of two above the longest delay, so entries normally fire on their first round. */
+        private static final int SIZE = 128;
+        private static final int MASK = SIZE - 1;
+
+        @SuppressWarnings("unchecked")
+        private final List<ServerPlayer>[] slots = new List[SIZE];
+        private List<ServerPlayer> spare = new ArrayList<>();
+        private final WaterHealingParticles particles = new WaterHealingParticles();
+        private long tick;
+        private boolean dropParticles;
+
+        Wheel() {
+            for (int i = 0; i < SIZE; i++) {
+                slots[i] = new ArrayList<>();
+            }
+        }
+
+        synchronized void tick(ServerLevel level) {
+            tick++;
+            int index = (int) (tick & MASK);
+            List<ServerPlayer> due = slots[index];
+            if (due.isEmpty()) {
+                return;
+            }
+
+            WaterHealingLoad.Level load = WaterHealingLoad.level();
+            // Heals reschedule into other slots; the swap keeps this one stable while iterating
+            slots[index] = spare;
+            for (int i = 0; i < due.size(); i++) {
+                ServerPlayer player = due.get(i);
+                WaterHealingState state = (WaterHealingState) player;
+                long deadline = state.weatheredwells$getHealDeadline();
+                // Players that left the dimension were rescheduled on their new wheel
+                if (player.isRemoved() || player.level() != level || (deadline & MASK) != index) {
+                    continue;
+                }
+                if (deadline > tick) {
+                    slots[index].add(player);
+                    continue;
+                }
+                if (deadline == tick) {
+                    if (WaterHealingHandler.heal(player) && emitsParticles(load)) {
+                        particles.add(player);
+                    }
+                    schedule(player, state, WaterHealingHandler.getHealInterval(state.weatheredwells$getLingeringLevel()));
+                }
+            }
+            due.clear();
+            spare = due;
+            particles.send(level);
+        }
+
+        private boolean emitsParticles(WaterHealingLoad.Level load) {
+            switch (load) {
+                case NORMAL:
+                    return true;
+                case FEWER_PARTICLES:
+                    dropParticles = !dropParticles;
+                    return !dropParticles;
+                default:
+                    return false;
+            }
+        }
+
+        synchronized void schedule(ServerPlayer player, WaterHealingState state, int delay) {
+            long deadline = tick + delay;
+            if (WaterHealingLoad.level() == WaterHealingLoad.Level.STAGGERED) {
+                deadline += Math.floorMod(WaterHealingLoad.staggerBucket(player) - deadline, WaterHealingLoad.STAGGER_TICKS);
+            }
+            state.weatheredwells$setHealDeadline(deadline);
+            slots[(int) (deadline & MASK)].add(player);
+        }
+    }
+}
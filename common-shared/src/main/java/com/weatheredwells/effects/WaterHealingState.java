@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.effects;
+
+/**
+ * Water healing state kept on each ServerPlayer (added by ServerPlayerMixin),
+ * so that the {@link WaterHealingScheduler} reads plain fields.
+ *
+ * The buff levels mirror {@link com.weatheredwells.data.PlayerBuffData}: they
+ * are loaded from it the first time a player object enters water and updated
+ * by its setters afterwards.
+ */
+public interface WaterHealingState {
+    /** Lingering level before the buffs are loaded. */
+    int UNLOADED = -1;
+
+    /** Scheduler tick of the next heal, or {@link WaterHealingScheduler#UNSCHEDULED}. */
+    long weatheredwells$getHealDeadline();
+
+    void weatheredwells$setHealDeadline(long tick);
+
+    /** Cached lingering level, or {@link #UNLOADED}. */
+    int weatheredwells$getLingeringLevel();
+
+    boolean weatheredwells$hasAttunement();
+
+    void weatheredwells$setBuffs(int lingeringLevel, boolean attunement);
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.LevelReader;
+import net.minecraft.world.level.WorldGenLevel;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Writes a loot table and seed into the block entity tag of a well chest.
+ *
+ * StructureTemplate.processBlockInfos hands processors a per-placement copy of
+ * each template tag, so an existing tag is filled in place; only chests without
+ * a tag get a copy of the prebuilt one. The seed is a hash of the world seed and
+ * the chest position rather than a RandomSource created per chest.
+ */
+public class WellChestLoot {
+    private static final String LOOT_TABLE_TAG = "LootTable";
+    private static final String LOOT_TABLE_SEED_TAG = "LootTableSeed";
+
+    private final ResourceLocation lootTable;
+    private final String lootTableId;
+    private final CompoundTag emptyChestTag;
+
+    public WellChestLoot(ResourceLocation lootTable) {
+        this.lootTable = lootTable;
+        this.lootTableId = lootTable.toString();
+        this.emptyChestTag = new CompoundTag();
+        this.emptyChestTag.putString(LOOT_TABLE_TAG, lootTableId);
+    }
+
+    public ResourceLocation lootTable() {
+        return lootTable;
+    }
+
+    /**
+     * Returns the chest tag with loot table and seed set: the given tag itself,
+     * or a new tag when the chest has none.
+     */
+    public CompoundTag apply(@Nullable CompoundTag nbt, long worldSeed, BlockPos pos) {
+        if (nbt == null) {
+            nbt = emptyChestTag.copy();
+        } else {
+            nbt.putString(LOOT_TABLE_TAG, lootTableId);
+        }
+        reseed(nbt, worldSeed, pos);
+        return nbt;
+    }
+
+    public static void reseed(CompoundTag nbt, long worldSeed, BlockPos pos) {
+        nbt.putLong(LOOT_TABLE_SEED_TAG, seed(worldSeed, pos));
+    }
+
+    public static long worldSeed(LevelReader level) {
+        return level instanceof WorldGenLevel worldGenLevel ? worldGenLevel.getSeed() : 0L;
+    }
+
+    /** SplitMix64 finalizer over the world seed and packed position. */
+    public static long seed(long worldSeed, BlockPos pos) {
+        long h = worldSeed ^ (pos.asLong() * 0x9E3779B97F4A7C15L);
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Predicts the weathered well distribution around a point without generating
+ * chunks, with the same placement math, biome sampling and generation point
+ * check (biome at the well, avoid_aquifer_water) as {@link WellLocator}. Used
+ * to tune the structure set spacing and separation and the well biome tags on
+ * the world seed or, through {@link WellLocator.Search#withSeed}, any other
+ * seed. It runs as a server command because it needs the loaded registries,
+ * chunk generator and templates of the dimension.
+ *
+ * Grid cells are evaluated in parallel on the common ForkJoin pool.
+ */
+public class WellDistributionSimulator {
+    private static final String CSV_HEADER = "chunk_x,chunk_z,block_x,block_z,biome,variant,generates";
+
+    /**
+     * Evaluates every grid cell whose candidate lies within the radius (in blocks)
+     * and writes the candidates to the CSV file.
+     */
+    public static Result simulate(WellLocator.Search search, BlockPos origin, int radius, Path csv) throws IOException {
+        long startNanos = System.nanoTime();
+        int spacing = search.spacing();
+        int minCellX = Math.floorDiv(SectionPos.blockToSectionCoord(origin.getX() - radius), spacing);
+        int maxCellX = Math.floorDiv(SectionPos.blockToSectionCoord(origin.getX() + radius), spacing);
+        int minCellZ = Math.floorDiv(SectionPos.blockToSectionCoord(origin.getZ() - radius), spacing);
+        int maxCellZ = Math.floorDiv(SectionPos.blockToSectionCoord(origin.getZ() + radius), spacing);
+        int width = maxCellX - minCellX + 1;
+        int cellCount = width * (maxCellZ - minCellZ + 1);
+        long radiusSqr = (long) radius * radius;
+
+        WellLocator.Candidate[] candidates = IntStream.range(0, cellCount).parallel()
+                .mapToObj(i -> {
+                    long cell = ChunkPos.asLong(minCellX + i % width, minCellZ + i / width);
+                    ChunkPos chunk = search.placement().getPotentialStructureChunk(search.state().getLevelSeed(),
+                            ChunkPos.getX(cell) * spacing, ChunkPos.getZ(cell) * spacing);
+                    long dx = chunk.getMinBlockX() - origin.getX();
+                    long dz = chunk.getMinBlockZ() - origin.getZ();
+                    return dx * dx + dz * dz <= radiusSqr ? search.candidate(cell) : null;
+                })
+                .filter(Objects::nonNull)
+                .toArray(WellLocator.Candidate[]::new);
+
+        int placed = 0;
+        int biomeMatches = 0;
+        int wells = 0;
+        Map<String, Integer> variants = new TreeMap<>();
+        Files.createDirectories(csv.getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+            for (WellLocator.Candidate candidate : candidates) {
+                if (candidate.biome() == null) {
+                    continue;
+                }
+                placed++;
+                String variant = candidate.variant() != null ? idOf(candidate.variant()) : "";
+                if (candidate.variant() != null) {
+                    biomeMatches++;
+                }
+                if (candidate.generates()) {
+                    wells++;
+                    variants.merge(variant, 1, Integer::sum);
+                }
+                ChunkPos chunk = candidate.chunk();
+                writer.write(chunk.x + "," + chunk.z + "," + chunk.getMinBlockX() + "," + chunk.getMinBlockZ()
+                        + "," + idOf(candidate.biome()) + "," + variant + "," + candidate.generates());
+                writer.newLine();
+            }
+        }
+
+        double areaKm2 = Math.PI * radiusSqr / 1_000_000.0;
+        return new Result(candidates.length, placed, biomeMatches, wells, wells / areaKm2, variants,
+                (System.nanoTime() - startNanos) / 1_000_000L, csv);
+    }
+
+    private static String idOf(Holder<?> holder) {
+        return holder.unwrapKey().map(key -> key.location().toString()).orElse("[unregistered]");
+    }
+
+    /**
+     * Simulation totals: grid candidates within the radius, those the placement
+     * kept (frequency and exclusion zones), those whose biome allows a well, and
+     * those whose well finds a generation point (the wells that would generate).
+     */
+    public record Result(int candidates, int placed, int biomeMatches, int wells, double wellsPerKm2,
+                         Map<String, Integer> variants, long millis, Path csv) {
+    }
+}
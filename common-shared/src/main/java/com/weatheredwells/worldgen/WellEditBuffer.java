@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.WorldGenLevel;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ImposterProtoChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.ProtoChunk;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the block edits of one mixin pass and applies them in a single sweep.
+ *
+ * Edits that land in a proto-chunk are written straight into its sections,
+ * without the per-call bookkeeping of {@link WorldGenLevel#setBlock}. The
+ * writes go through the section's threading detector, as ProtoChunk.setBlockState
+ * does, so a write racing another worldgen thread on the same section fails
+ * loudly rather than corrupting the palette; vanilla never places the
+ * features of overlapping chunk regions at once.
+ * Heightmaps are refreshed once per edited chunk after all writes. Lighting
+ * is not touched: well placement runs at the FEATURES status, before light is
+ * initialized. Edits to live chunks (e.g. /place structure) fall back to
+ * {@code setBlock} with the same flags as before.
+ */
+public class WellEditBuffer {
+    private static final int UPDATE_FLAGS = 2;
+
+    private final LongArrayList positions = new LongArrayList();
+    private final List<BlockState> states = new ArrayList<>();
+
+    public void set(BlockPos pos, BlockState state) {
+        positions.add(pos.asLong());
+        states.add(state);
+    }
+
+    public boolean isEmpty() {
+        return positions.isEmpty();
+    }
+
+    public void clear() {
+        positions.clear();
+        states.clear();
+    }
+
+    public void apply(WorldGenLevel level) {
+        if (positions.isEmpty()) {
+            return;
+        }
+
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        List<ChunkAccess> editedChunks = new ArrayList<>(1);
+        ChunkAccess chunk = null;
+        long chunkKey = 0;
+        boolean direct = false;
+
+        // Edits arrive in scan order, so consecutive edits nearly always share a chunk
+        for (int i = 0; i < positions.size(); i++) {
+            pos.set(positions.getLong(i));
+            BlockState state = states.get(i);
+            long key = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+
+            if (chunk == null || key != chunkKey) {
+                chunk = level.getChunk(pos.getX() >> 4, pos.getZ() >> 4);
+                chunkKey = key;
+                direct = chunk instanceof ProtoChunk && !(chunk instanceof ImposterProtoChunk);
+                if (direct && !editedChunks.contains(chunk)) {
+                    editedChunks.add(chunk);
+                }
+            }
+
+            if (!direct) {
+                level.setBlock(pos, state, UPDATE_FLAGS);
+                continue;
+            }
+
+            LevelChunkSection section = chunk.getSection(chunk.getSectionIndex(pos.getY()));
+            section.setBlockState(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15, state);
+            if (state.hasPostProcess(level, pos)) {
+                chunk.markPosForPostprocessing(pos);
+            }
+        }
+
+        for (ChunkAccess edited : editedChunks) {
+            updateHeightmaps(edited, pos);
+        }
+        clear();
+    }
+
+    private void updateHeightmaps(ChunkAccess chunk, BlockPos.MutableBlockPos pos) {
+        ChunkPos chunkPos = chunk.getPos();
+        for (Map.Entry<Heightmap.Types, Heightmap> entry : chunk.getHeightmaps()) {
+            Heightmap heightmap = entry.getValue();
+            for (int i = 0; i < positions.size(); i++) {
+                pos.set(positions.getLong(i));
+                if (pos.getX() >> 4 == chunkPos.x && pos.getZ() >> 4 == chunkPos.z) {
+                    heightmap.update(pos.getX() & 15, pos.getY(), pos.getZ() & 15, states.get(i));
+                }
+            }
+        }
+    }
+}
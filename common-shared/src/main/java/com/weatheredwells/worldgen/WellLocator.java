@@ -0,0 +1,354 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import com.mojang.datafixers.util.Pair;
+import com.weatheredwells.WeatheredWells;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.HolderSet;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.BiomeSource;
+import net.minecraft.world.level.chunk.ChunkGenerator;
+import net.minecraft.world.level.chunk.ChunkGeneratorStructureState;
+import net.minecraft.world.level.levelgen.NoiseBasedChunkGenerator;
+import net.minecraft.world.level.levelgen.NoiseGeneratorSettings;
+import net.minecraft.world.level.levelgen.RandomState;
+import net.minecraft.world.level.levelgen.structure.Structure;
+import net.minecraft.world.level.levelgen.structure.StructureSet;
+import net.minecraft.world.level.levelgen.structure.placement.RandomSpreadStructurePlacement;
+import net.minecraft.world.level.levelgen.structure.placement.StructurePlacement;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Finds weathered wells without generating chunks.
+ *
+ * Candidate chunks come straight from the random_spread placement of the well
+ * structure set, one per grid cell. Each candidate gets the variant the
+ * {@link WellVariantTable} picks for it, and that variant's generation point
+ * is checked as the chunk generator would, so candidates the structure rejects
+ * (wrong biome at the well, water with avoid_aquifer_water) are skipped. Cells
+ * are searched ring by ring around the origin, with each ring's checks running
+ * in parallel on the common ForkJoin pool, so queries never block the server
+ * thread. Evaluated cells are cached per dimension.
+ *
+ * Vanilla /locate searches for wells only are answered here too (see
+ * ChunkGeneratorMixin), so they share the cell cache and parallel search.
+ */
+public class WellLocator {
+    public static final ResourceKey<StructureSet> WEATHERED_WELLS = ResourceKey.create(Registries.STRUCTURE_SET,
+            ResourceLocation.tryParse(WeatheredWells.MOD_ID + ":weathered_wells"));
+
+    private static final int MAX_CACHED_CELLS = 1 << 16;
+
+    /** Marks an evaluated cell without a well. */
+    private static final ChunkPos NO_WELL = new ChunkPos(Integer.MIN_VALUE, Integer.MIN_VALUE);
+
+    private static final Map<ResourceKey<Level>, Map<Long, ChunkPos>> CELLS = new ConcurrentHashMap<>();
+
+    public static void clear(ResourceKey<Level> dimension) {
+        CELLS.remove(dimension);
+    }
+
+    public static void clear() {
+        CELLS.clear();
+    }
+
+    /**
+     * Resolves everything the search needs from the level; must be called on the
+     * server thread. Returns null when the level cannot generate weathered wells.
+     */
+    @Nullable
+    public static Search prepare(ServerLevel level) {
+        Optional<? extends Holder<StructureSet>> set =
+                level.registryAccess().lookupOrThrow(Registries.STRUCTURE_SET).get(WEATHERED_WELLS);
+        if (set.isEmpty() || set.get().value().structures().isEmpty()) {
+            return null;
+        }
+        Holder<Structure> structure = set.get().value().structures().get(0).structure();
+        WellVariantTable variants = WellVariantTable.forStructure(level.registryAccess(), structure.value());
+        if (variants == null) {
+            return null;
+        }
+
+        // Only lists the placement when the dimension's biome source can hold the set's structures
+        ChunkGeneratorStructureState state = level.getChunkSource().getGeneratorState();
+        for (StructurePlacement placement : state.getPlacementsForStructure(structure)) {
+            if (placement instanceof RandomSpreadStructurePlacement randomSpread) {
+                ChunkGenerator generator = level.getChunkSource().getGenerator();
+                Map<Long, ChunkPos> cells = CELLS.computeIfAbsent(level.dimension(), key -> new ConcurrentHashMap<>());
+                return new Search(variants, randomSpread, state, generator, generator.getBiomeSource(),
+                        level.getChunkSource().randomState(), level, level.registryAccess(),
+                        level.getServer().getStructureManager(), cells);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The search for a ChunkGenerator#findNearestMapStructure call, or null when
+     * it asks for anything other than weathered wells and the vanilla search
+     * should run.
+     */
+    @Nullable
+    public static Search prepareFor(ServerLevel level, HolderSet<Structure> structures) {
+        if (structures.size() == 0) {
+            return null;
+        }
+        Search search = prepare(level);
+        if (search == null) {
+            return null;
+        }
+        for (Holder<Structure> structure : structures) {
+            if (search.variantOf(structure.value()) == null) {
+                return null;
+            }
+        }
+        return search;
+    }
+
+    /**
+     * Finds the well nearest to the origin within the radius (in blocks). The
+     * result is the well's chunk, completed off the server thread.
+     */
+    public static CompletableFuture<Optional<ChunkPos>> locate(ServerLevel level, BlockPos origin, int radius) {
+        Search search = prepare(level);
+        if (search == null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return CompletableFuture.supplyAsync(() -> search.nearest(origin, radius), ForkJoinPool.commonPool());
+    }
+
+    /** Placement state of one dimension; safe to use from any thread. */
+    public record Search(WellVariantTable variants,
+                         RandomSpreadStructurePlacement placement,
+                         ChunkGeneratorStructureState state,
+                         ChunkGenerator generator,
+                         BiomeSource biomeSource,
+                         RandomState randomState,
+                         LevelHeightAccessor heightAccessor,
+                         RegistryAccess registryAccess,
+                         StructureTemplateManager templateManager,
+                         Map<Long, ChunkPos> cells) {
+
+        public int spacing() {
+            return placement.spacing();
+        }
+
+        /**
+         * The same search with another spacing and separation, for simulating
+         * structure set changes; uses its own cell cache.
+         */
+        public Search withSpread(int spacing, int separation) {
+            RandomSpreadStructurePlacement spread =
+                    new RandomSpreadStructurePlacement(spacing, separation, placement.spreadType(), placement.salt());
+            return new Search(variants, spread, state, generator, biomeSource, randomState, heightAccessor,
+                    registryAccess, templateManager, new ConcurrentHashMap<>());
+        }
+
+        /**
+         * The same search on another world seed, for simulating seeds other than
+         * the level's own; uses its own noise, placement state and cell cache.
+         */
+        public Search withSeed(long seed) {
+            NoiseGeneratorSettings settings = generator instanceof NoiseBasedChunkGenerator noiseGenerator
+                    ? noiseGenerator.generatorSettings().value()
+                    : NoiseGeneratorSettings.dummy();
+            RandomState seededRandomState =
+                    RandomState.create(settings, registryAccess.lookupOrThrow(Registries.NOISE), seed);
+            ChunkGeneratorStructureState seededState = generator.createState(
+                    registryAccess.lookupOrThrow(Registries.STRUCTURE_SET), seededRandomState, seed);
+            return new Search(variants, placement, seededState, generator, biomeSource, seededRandomState,
+                    heightAccessor, registryAccess, templateManager, new ConcurrentHashMap<>());
+        }
+
+        public Optional<ChunkPos> nearest(BlockPos origin, int radius) {
+            return nearest(origin, radius, null);
+        }
+
+        /**
+         * Answers ChunkGenerator#findNearestMapStructure: the locate position and
+         * variant of the nearest well of one of the structures, searching as many
+         * grid cells around the origin as the vanilla search does.
+         */
+        @Nullable
+        public Pair<BlockPos, Holder<Structure>> nearestMapStructure(HolderSet<Structure> structures, BlockPos origin,
+                                                                     int searchRadius) {
+            Set<Structure> wanted = Collections.newSetFromMap(new IdentityHashMap<>());
+            structures.forEach(structure -> wanted.add(structure.value()));
+            int radius = SectionPos.sectionToBlockCoord(searchRadius * spacing());
+            return nearest(origin, radius, variant -> wanted.contains(variant.value()))
+                    .map(chunk -> Pair.of(placement.getLocatePos(chunk), variant(chunk)))
+                    .orElse(null);
+        }
+
+        /** Finds the nearest well, only counting wells whose variant passes the filter. */
+        public Optional<ChunkPos> nearest(BlockPos origin, int radius,
+                                          @Nullable Predicate<Holder<Structure>> variantFilter) {
+            int spacing = spacing();
+            int originCellX = Math.floorDiv(SectionPos.blockToSectionCoord(origin.getX()), spacing);
+            int originCellZ = Math.floorDiv(SectionPos.blockToSectionCoord(origin.getZ()), spacing);
+            int maxRing = SectionPos.blockToSectionCoord(radius) / spacing + 1;
+            long maxDistanceSqr = (long) radius * radius;
+
+            ChunkPos nearest = null;
+            long nearestDistanceSqr = Long.MAX_VALUE;
+            int lastRing = maxRing;
+            for (int ring = 0; ring <= lastRing; ring++) {
+                LongArrayList ringCells = ringCells(originCellX, originCellZ, ring);
+                ChunkPos[] found = IntStream.range(0, ringCells.size()).parallel()
+                        .mapToObj(i -> wellInCell(ringCells.getLong(i)))
+                        .filter(chunk -> chunk != NO_WELL
+                                && (variantFilter == null || variantFilter.test(variant(chunk))))
+                        .toArray(ChunkPos[]::new);
+
+                for (ChunkPos chunk : found) {
+                    long dx = chunk.getMinBlockX() - origin.getX();
+                    long dz = chunk.getMinBlockZ() - origin.getZ();
+                    long distanceSqr = dx * dx + dz * dz;
+                    if (distanceSqr <= maxDistanceSqr && distanceSqr < nearestDistanceSqr) {
+                        nearest = chunk;
+                        nearestDistanceSqr = distanceSqr;
+                    }
+                }
+                if (nearest != null && lastRing == maxRing) {
+                    // Placements jitter inside their cell, so the next ring can still hold a closer one
+                    lastRing = Math.min(maxRing, ring + 1);
+                }
+            }
+            return Optional.ofNullable(nearest);
+        }
+
+        /** Returns the well chunk of a grid cell, or {@link #NO_WELL}. */
+        public ChunkPos wellInCell(long cell) {
+            ChunkPos cached = cells.get(cell);
+            if (cached != null) {
+                return cached;
+            }
+
+            int spacing = spacing();
+            ChunkPos chunk = placement.getPotentialStructureChunk(state.getLevelSeed(),
+                    ChunkPos.getX(cell) * spacing, ChunkPos.getZ(cell) * spacing);
+            ChunkPos result = placement.isStructureChunk(state, chunk.x, chunk.z) && generates(variant(chunk), chunk)
+                    ? chunk
+                    : NO_WELL;
+
+            if (cells.size() >= MAX_CACHED_CELLS) {
+                cells.clear();
+            }
+            cells.put(cell, result);
+            return result;
+        }
+
+        /**
+         * Evaluates a grid cell without caching: its candidate chunk, whether the
+         * placement keeps it, the sampled biome, the variant it would get and
+         * whether that variant finds a generation point there.
+         */
+        public Candidate candidate(long cell) {
+            int spacing = spacing();
+            ChunkPos chunk = placement.getPotentialStructureChunk(state.getLevelSeed(),
+                    ChunkPos.getX(cell) * spacing, ChunkPos.getZ(cell) * spacing);
+            if (!placement.isStructureChunk(state, chunk.x, chunk.z)) {
+                return new Candidate(chunk, null, null, false);
+            }
+            Holder<Biome> biome = WellVariantTable.sampleBiome(generator, biomeSource, randomState, heightAccessor, chunk);
+            Holder<Structure> variant = variants.pick(biome, state.getLevelSeed(), chunk);
+            return new Candidate(chunk, biome, variant, generates(variant, chunk));
+        }
+
+        /**
+         * Whether the variant picked for a candidate chunk finds a generation
+         * point there, with the same context and biome check the chunk generator
+         * uses for a structure start.
+         */
+        private boolean generates(@Nullable Holder<Structure> variant, ChunkPos chunk) {
+            if (variant == null) {
+                return false;
+            }
+            Structure structure = variant.value();
+            return structure.findValidGenerationPoint(new Structure.GenerationContext(registryAccess, generator,
+                    biomeSource, randomState, templateManager, state.getLevelSeed(), chunk, heightAccessor,
+                    structure.biomes()::contains)).isPresent();
+        }
+
+        /** The well set's entry for a structure, or null when the set does not list it. */
+        @Nullable
+        Holder<Structure> variantOf(Structure structure) {
+            for (StructureSet.StructureSelectionEntry entry : variants.entries()) {
+                if (entry.structure().value() == structure) {
+                    return entry.structure();
+                }
+            }
+            return null;
+        }
+
+        /** The variant picked for a candidate chunk, or null when its biome allows none. */
+        @Nullable
+        public Holder<Structure> variant(ChunkPos chunk) {
+            return variants.pick(generator, biomeSource, randomState, heightAccessor, state.getLevelSeed(), chunk);
+        }
+
+        public static boolean isWell(ChunkPos chunk) {
+            return chunk != NO_WELL;
+        }
+
+        static LongArrayList ringCells(int centerX, int centerZ, int ring) {
+            LongArrayList cells = new LongArrayList(Math.max(1, ring * 8));
+            for (int x = -ring; x <= ring; x++) {
+                for (int z = -ring; z <= ring; z++) {
+                    if (Math.abs(x) == ring || Math.abs(z) == ring) {
+                        cells.add(ChunkPos.asLong(centerX + x, centerZ + z));
+                    }
+                }
+            }
+            return cells;
+        }
+    }
+
+    /**
+     * A placement candidate; biome is null when the placement rejected the chunk,
+     * variant is null when no variant is allowed in the biome, and generates is
+     * false when the variant finds no generation point (e.g. avoid_aquifer_water).
+     */
+    public record Candidate(ChunkPos chunk, @Nullable Holder<Biome> biome, @Nullable Holder<Structure> variant,
+                            boolean generates) {
+    }
+}
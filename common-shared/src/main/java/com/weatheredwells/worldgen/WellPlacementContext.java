@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Per-placement state of the StructureStartMixin.
+ *
+ * A context is opened at the start of {@code StructureStart.placeInChunk} and
+ * closed when it returns, so it is confined to the placing thread and never
+ * shared between concurrent placements. Positions are stored as packed longs
+ * ({@link BlockPos#asLong()}) so recording them does not allocate.
+ */
+public class WellPlacementContext {
+    private static final ThreadLocal<WellPlacementContext> LOCAL =
+            ThreadLocal.withInitial(WellPlacementContext::new);
+
+    private final LongOpenHashSet intentionalWaterlogging = new LongOpenHashSet();
+    private final LongOpenHashSet visited = new LongOpenHashSet();
+    private final WellEditBuffer edits = new WellEditBuffer();
+    private boolean active;
+
+    private WellPlacementContext() {
+    }
+
+    /**
+     * Opens a fresh context for the current thread. The backing storage is
+     * reused between placements on the same thread.
+     */
+    public static WellPlacementContext begin() {
+        WellPlacementContext context = LOCAL.get();
+        context.intentionalWaterlogging.clear();
+        context.visited.clear();
+        context.edits.clear();
+        context.active = true;
+        return context;
+    }
+
+    /**
+     * Returns the context of the placement running on this thread, or null
+     * when no well placement is in progress.
+     */
+    @Nullable
+    public static WellPlacementContext current() {
+        WellPlacementContext context = LOCAL.get();
+        return context.active ? context : null;
+    }
+
+    public static void end() {
+        WellPlacementContext context = LOCAL.get();
+        context.intentionalWaterlogging.clear();
+        context.visited.clear();
+        context.edits.clear();
+        context.active = false;
+    }
+
+    /**
+     * Records the intentionally waterlogged cells of a template placed at the given origin.
+     *
+     * @param relativeCells packed positions relative to the template origin
+     * @see WellTemplateMask.Cells#intentional()
+     */
+    public void markIntentionallyWaterlogged(long[] relativeCells, BlockPos origin) {
+        for (long cell : relativeCells) {
+            intentionalWaterlogging.add(BlockPos.offset(cell, origin.getX(), origin.getY(), origin.getZ()));
+        }
+    }
+
+    public WellEditBuffer edits() {
+        return edits;
+    }
+
+    public boolean isIntentionallyWaterlogged(BlockPos pos) {
+        return intentionalWaterlogging.contains(pos.asLong());
+    }
+
+    /**
+     * Marks a position as checked by the fixup pass. Returns false if it was already
+     * checked, e.g. where the footprints of the top and bottom pieces overlap.
+     */
+    public boolean markVisited(BlockPos pos) {
+        return visited.add(pos.asLong());
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+/**
+ * How the StructureStartMixin treats a structure during placement.
+ */
+public enum WellPlacementPolicy {
+    /** Not a Weathered Wells structure; placement is left untouched. */
+    SKIP,
+    /** Dry-land well: water is removed before placement and waterlogging is repaired after. */
+    FULL_FIXUP,
+    /** Sunken well: surrounding water is part of the design, so no fixup is applied. */
+    SUNKEN
+}
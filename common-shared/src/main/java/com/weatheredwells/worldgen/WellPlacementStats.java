@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time spent in the StructureStartMixin passes of dry-land wells, summed over
+ * all worldgen threads.
+ */
+public class WellPlacementStats {
+    private static final LongAdder BEFORE_COUNT = new LongAdder();
+    private static final LongAdder BEFORE_NANOS = new LongAdder();
+    private static final LongAdder AFTER_COUNT = new LongAdder();
+    private static final LongAdder AFTER_NANOS = new LongAdder();
+
+    public static void recordBeforePlacement(long nanos) {
+        BEFORE_COUNT.increment();
+        BEFORE_NANOS.add(nanos);
+    }
+
+    public static void recordAfterPlacement(long nanos) {
+        AFTER_COUNT.increment();
+        AFTER_NANOS.add(nanos);
+    }
+
+    public static long passes() {
+        return BEFORE_COUNT.sum();
+    }
+
+    /** Average water removal pass before placement, in microseconds. */
+    public static double averageBeforeMicros() {
+        return averageMicros(BEFORE_NANOS, BEFORE_COUNT);
+    }
+
+    /** Average waterlogging repair pass after placement, in microseconds. */
+    public static double averageAfterMicros() {
+        return averageMicros(AFTER_NANOS, AFTER_COUNT);
+    }
+
+    public static void reset() {
+        BEFORE_COUNT.reset();
+        BEFORE_NANOS.reset();
+        AFTER_COUNT.reset();
+        AFTER_NANOS.reset();
+    }
+
+    private static double averageMicros(LongAdder nanos, LongAdder count) {
+        long n = count.sum();
+        return n == 0 ? 0.0 : nanos.sum() / (n * 1000.0);
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import com.weatheredwells.WeatheredWells;
+import com.weatheredwells.data.WellPregenData;
+import com.weatheredwells.data.WellPregenProgress;
+import com.weatheredwells.effects.WaterHealingLoad;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.levelgen.structure.Structure;
+import net.minecraft.world.level.levelgen.structure.StructureStart;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Pre-generates weathered wells around a point without blocking server ticks.
+ *
+ * Cells are visited ring by ring around the origin as in {@link WellLocator};
+ * only the chunks of cells that hold a well are generated, first the start
+ * chunk and then every chunk the structure start's bounding box reaches.
+ * Chunks are requested through {@link WellChunkRequests} and generated on the
+ * worldgen threads; each tick polls the pending ones and only admits new cells
+ * while the measured tick time ({@link WaterHealingLoad#averageTickMs}) is
+ * under the run's MSPT limit, with at most {@link #MAX_CELLS_IN_FLIGHT} cells
+ * pending at once.
+ *
+ * Progress is stored in {@link WellPregenData} at every report and resumed on
+ * server start from the first cell not yet completed.
+ */
+public class WellPregenerator {
+    public static final int DEFAULT_MAX_MSPT = 40;
+    private static final int REPORT_INTERVAL_TICKS = 600;
+    private static final int MAX_CELLS_IN_FLIGHT = 8;
+    /** Server thread time each tick may spend evaluating new cells. */
+    private static final long ADMIT_BUDGET_NANOS = 2_000_000L;
+
+    // Runs resumed after a restart report to the server log, where mod translations are not loaded
+    private static final String PROGRESS_FALLBACK =
+            "Well pre-generation: ring %s/%s, %s chunks generated (%s chunks/s), %s wells, placement passes %s µs before / %s µs after";
+    private static final String FINISHED_FALLBACK = "Well pre-generation finished: %s chunks generated, %s wells";
+
+    /** The running pre-generation; only touched on the server thread. */
+    @Nullable
+    private static Job job;
+
+    public static boolean isRunning() {
+        return job != null;
+    }
+
+    /** Starts a run; returns false when the level has no wells. */
+    public static boolean start(ServerLevel level, BlockPos origin, int radius, int maxMspt,
+                                @Nullable CommandSourceStack source) {
+        WellLocator.Search search = WellLocator.prepare(level);
+        if (search == null) {
+            return false;
+        }
+
+        WellPlacementStats.reset();
+        WellPregenProgress progress = new WellPregenProgress(level.dimension().location(),
+                origin.getX(), origin.getZ(), radius, maxMspt, 0, 0, 0L, 0);
+        job = new Job(level, search, progress, source);
+        WellPregenData.get(level.getServer().overworld()).setProgress(progress);
+        return true;
+    }
+
+    public static void stop(MinecraftServer server) {
+        job = null;
+        WellPregenData.get(server.overworld()).setProgress(null);
+    }
+
+    /** Picks up a run interrupted by a restart. */
+    public static void resume(MinecraftServer server) {
+        WellPregenProgress progress = WellPregenData.get(server.overworld()).getProgress();
+        if (progress == null) {
+            return;
+        }
+
+        ServerLevel level = server.getLevel(ResourceKey.create(Registries.DIMENSION, progress.dimension()));
+        WellLocator.Search search = level != null ? WellLocator.prepare(level) : null;
+        if (search == null) {
+            WeatheredWells.LOGGER.warn("Dropping well pre-generation in unavailable dimension {}",
+                    progress.dimension());
+            WellPregenData.get(server.overworld()).setProgress(null);
+            return;
+        }
+
+        WeatheredWells.LOGGER.info("Resuming well pre-generation in {} at ring {}",
+                progress.dimension(), progress.ring());
+        job = new Job(level, search, progress, null);
+    }
+
+    public static void clear() {
+        job = null;
+    }
+
+    @Nullable
+    public static Component status() {
+        Job current = job;
+        return current != null ? current.report() : null;
+    }
+
+    public static void tick(MinecraftServer server) {
+        Job current = job;
+        if (current == null) {
+            return;
+        }
+
+        current.poll();
+        if (WaterHealingLoad.averageTickMs() < current.progress.maxMspt()) {
+            current.admit();
+        }
+
+        WellPregenData data = WellPregenData.get(server.overworld());
+        if (current.finished()) {
+            current.send(Component.translatableWithFallback("commands.weatheredwells.pregen.finished",
+                    FINISHED_FALLBACK, current.chunks, current.wells));
+            job = null;
+            data.setProgress(null);
+            return;
+        }
+
+        if (++current.ticks % REPORT_INTERVAL_TICKS == 0) {
+            current.save(data);
+            current.send(current.report());
+        }
+    }
+
+    /** A cell whose well chunks are being generated. */
+    private static final class Cell {
+        final int ring;
+        final int ringIndex;
+        final ChunkPos start;
+        @Nullable
+        final Holder<Structure> variant;
+        /** Chunks requested and not yet loaded. */
+        final LongArrayList pending = new LongArrayList();
+
+        Cell(int ring, int ringIndex, ChunkPos start, @Nullable Holder<Structure> variant) {
+            this.ring = ring;
+            this.ringIndex = ringIndex;
+            this.start = start;
+            this.variant = variant;
+        }
+    }
+
+    private static final class Job {
+        final ServerLevel level;
+        final WellLocator.Search search;
+        final int originCellX;
+        final int originCellZ;
+        final int maxRing;
+        final long radiusSqr;
+        @Nullable
+        final CommandSourceStack source;
+        final long startNanos = System.nanoTime();
+        /** Cells admitted and not completed, in admission order. */
+        final List<Cell> inFlight = new ArrayList<>();
+
+        WellPregenProgress progress;
+        int ring;
+        int ringIndex;
+        long chunks;
+        int wells;
+        long sessionChunks;
+        int ticks;
+        @Nullable
+        LongArrayList cells;
+        int cellsRing = -1;
+
+        Job(ServerLevel level, WellLocator.Search search, WellPregenProgress progress,
+            @Nullable CommandSourceStack source) {
+            this.level = level;
+            this.search = search;
+            this.progress = progress;
+            this.source = source;
+            int spacing = search.spacing();
+            this.originCellX = Math.floorDiv(SectionPos.blockToSectionCoord(progress.originX()), spacing);
+            this.originCellZ = Math.floorDiv(SectionPos.blockToSectionCoord(progress.originZ()), spacing);
+            this.maxRing = SectionPos.blockToSectionCoord(progress.radius()) / spacing + 1;
+            this.radiusSqr = (long) progress.radius() * progress.radius();
+            this.ring = progress.ring();
+            this.ringIndex = progress.ringIndex();
+            this.chunks = progress.chunks();
+            this.wells = progress.wells();
+        }
+
+        LongArrayList ringCells() {
+            if (cells == null || cellsRing != ring) {
+                cells = WellLocator.Search.ringCells(originCellX, originCellZ, ring);
+                cellsRing = ring;
+            }
+            return cells;
+        }
+
+        boolean finished() {
+            return ring > maxRing && inFlight.isEmpty();
+        }
+
+        /** Takes new cells until the tick's admit budget is spent or enough cells are pending. */
+        void admit() {
+            long deadline = System.nanoTime() + ADMIT_BUDGET_NANOS;
+            while (inFlight.size() < MAX_CELLS_IN_FLIGHT && ring <= maxRing && System.nanoTime() < deadline) {
+                if (ringIndex >= ringCells().size()) {
+                    ring++;
+                    ringIndex = 0;
+                    continue;
+                }
+                int cellRing = ring;
+                int cellIndex = ringIndex;
+                ChunkPos chunk = search.wellInCell(ringCells().getLong(ringIndex++));
+                if (!WellLocator.Search.isWell(chunk)) {
+                    continue;
+                }
+                long dx = chunk.getMinBlockX() - progress.originX();
+                long dz = chunk.getMinBlockZ() - progress.originZ();
+                if (dx * dx + dz * dz > radiusSqr) {
+                    continue;
+                }
+
+                Cell cell = new Cell(cellRing, cellIndex, chunk, search.variant(chunk));
+                inFlight.add(cell);
+                request(cell, chunk.x, chunk.z);
+            }
+        }
+
+        /** Completes the chunks that finished loading and renews the requests of the others. */
+        void poll() {
+            Iterator<Cell> iterator = inFlight.iterator();
+            while (iterator.hasNext()) {
+                Cell cell = iterator.next();
+                for (int i = cell.pending.size() - 1; i >= 0; i--) {
+                    long pos = cell.pending.getLong(i);
+                    int x = ChunkPos.getX(pos);
+                    int z = ChunkPos.getZ(pos);
+                    LevelChunk chunk = WellChunkRequests.loaded(level, x, z);
+                    if (chunk == null) {
+                        WellChunkRequests.request(level, x, z);
+                        continue;
+                    }
+                    cell.pending.removeLong(i);
+                    // Chunks loaded from disk are clean; only the ones generated for this run are counted
+                    boolean generated = chunk.isUnsaved();
+                    if (generated) {
+                        chunks++;
+                        sessionChunks++;
+                    }
+                    if (x == cell.start.x && z == cell.start.z) {
+                        started(cell, chunk, generated);
+                    }
+                }
+                if (cell.pending.isEmpty()) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        /**
+         * Requests every other chunk the well's bounding box reaches once its start
+         * exists; wells are counted when their start chunk was generated by this run.
+         */
+        private void started(Cell cell, LevelChunk startChunk, boolean generated) {
+            StructureStart start = cell.variant != null ? startChunk.getStartForStructure(cell.variant.value()) : null;
+            if (start == null || !start.isValid()) {
+                // The chunk generator placed no well after all
+                return;
+            }
+
+            if (generated) {
+                wells++;
+            }
+            BoundingBox box = start.getBoundingBox();
+            for (int x = SectionPos.blockToSectionCoord(box.minX()); x <= SectionPos.blockToSectionCoord(box.maxX()); x++) {
+                for (int z = SectionPos.blockToSectionCoord(box.minZ()); z <= SectionPos.blockToSectionCoord(box.maxZ()); z++) {
+                    if (x != cell.start.x || z != cell.start.z) {
+                        request(cell, x, z);
+                    }
+                }
+            }
+        }
+
+        private void request(Cell cell, int x, int z) {
+            // Chunks already loaded were generated before; they are neither requested nor counted
+            LevelChunk loaded = WellChunkRequests.loaded(level, x, z);
+            if (loaded != null) {
+                if (x == cell.start.x && z == cell.start.z) {
+                    started(cell, loaded, false);
+                }
+                return;
+            }
+            cell.pending.add(ChunkPos.asLong(x, z));
+            WellChunkRequests.request(level, x, z);
+        }
+
+        /** Stores the first cell not yet completed, so a restart redoes nothing but pending cells. */
+        void save(WellPregenData data) {
+            Cell oldest = inFlight.isEmpty() ? null : inFlight.get(0);
+            progress = oldest != null
+                    ? progress.advance(oldest.ring, oldest.ringIndex, chunks, wells)
+                    : progress.advance(ring, ringIndex, chunks, wells);
+            data.setProgress(progress);
+        }
+
+        Component report() {
+            double seconds = Math.max(1e-3, (System.nanoTime() - startNanos) / 1e9);
+            return Component.translatableWithFallback("commands.weatheredwells.pregen.progress", PROGRESS_FALLBACK,
+                    ring, maxRing, chunks, String.format(Locale.ROOT, "%.1f", sessionChunks / seconds), wells,
+                    String.format(Locale.ROOT, "%.1f", WellPlacementStats.averageBeforeMicros()),
+                    String.format(Locale.ROOT, "%.1f", WellPlacementStats.averageAfterMicros()));
+        }
+
+        void send(Component message) {
+            if (source != null) {
+                source.sendSuccess(() -> message, true);
+            } else {
+                WeatheredWells.LOGGER.info(message.getString());
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.ServerLevelAccessor;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.Mirror;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.levelgen.structure.templatesystem.BlockIgnoreProcessor;
+import net.minecraft.world.level.levelgen.structure.templatesystem.JigsawReplacementProcessor;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureProcessor;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches the processed block list of well templates per (palette, rotation,
+ * mirror, pivot, processors).
+ *
+ * Only processor chains made of position-independent processors are cached,
+ * with positions kept relative to the placement offset. Placing a cached
+ * template then only offsets each block, copies block entity tags and rolls
+ * the chest loot seeds (see {@link WellChestLoot}), which are the
+ * position-dependent parts.
+ *
+ * Bounded to {@link #MAX_ENTRIES} entries (least recently used are dropped)
+ * and cleared on datapack reload, since reloaded templates bring new palettes.
+ */
+public class WellProcessedTemplateCache {
+    private static final int MAX_ENTRIES = 64;
+
+    private static final Map<Key, Entry> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            });
+
+    /** Set while an entry is built, so the nested processBlockInfos call runs uncached. */
+    private static final ThreadLocal<Boolean> BUILDING = ThreadLocal.withInitial(() -> false);
+
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    /**
+     * Returns the processed blocks for a placement, or null when the processors
+     * cannot be cached and the regular processing should run.
+     */
+    @Nullable
+    public static List<StructureTemplate.StructureBlockInfo> process(
+            ServerLevelAccessor level,
+            BlockPos offset,
+            StructurePlaceSettings settings,
+            List<StructureTemplate.StructureBlockInfo> blockInfos) {
+
+        if (BUILDING.get()) {
+            return null;
+        }
+
+        List<StructureProcessor> processors = settings.getProcessors();
+        if (!isCacheable(processors)) {
+            return null;
+        }
+
+        Key key = new Key(blockInfos, settings.getRotation(), settings.getMirror(),
+                settings.getRotationPivot(), processors.toArray(new StructureProcessor[0]));
+        Entry entry = CACHE.get(key);
+        if (entry == null) {
+            // Built outside the lock; a concurrent build of the same key produces an equal entry
+            entry = build(level, settings, blockInfos, assignsChestLoot(processors));
+            CACHE.put(key, entry);
+        }
+        return entry.place(offset, WellChestLoot.worldSeed(level));
+    }
+
+    /**
+     * Builds the entry for a placement ahead of its first use; returns false when
+     * the processors cannot be cached.
+     */
+    public static boolean warm(
+            ServerLevelAccessor level,
+            StructurePlaceSettings settings,
+            List<StructureTemplate.StructureBlockInfo> blockInfos) {
+
+        List<StructureProcessor> processors = settings.getProcessors();
+        if (!isCacheable(processors)) {
+            return false;
+        }
+
+        Key key = new Key(blockInfos, settings.getRotation(), settings.getMirror(),
+                settings.getRotationPivot(), processors.toArray(new StructureProcessor[0]));
+        if (CACHE.get(key) == null) {
+            CACHE.put(key, build(level, settings, blockInfos, assignsChestLoot(processors)));
+        }
+        return true;
+    }
+
+    private static boolean isCacheable(List<StructureProcessor> processors) {
+        boolean wellProcessors = false;
+        for (StructureProcessor processor : processors) {
+            if (processor instanceof WellProcessor
+                    || processor instanceof WaterlogRemovalProcessor
+                    || processor instanceof ChestLootProcessor) {
+                wellProcessors = true;
+            } else if (!(processor instanceof BlockIgnoreProcessor)
+                    && !(processor instanceof JigsawReplacementProcessor)) {
+                return false;
+            }
+        }
+        return wellProcessors;
+    }
+
+    private static boolean assignsChestLoot(List<StructureProcessor> processors) {
+        for (StructureProcessor processor : processors) {
+            if (processor instanceof ChestLootProcessor
+                    || processor instanceof WellProcessor wellProcessor && wellProcessor.assignsChestLoot()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Entry build(ServerLevelAccessor level, StructurePlaceSettings settings,
+                               List<StructureTemplate.StructureBlockInfo> blockInfos, boolean assignsChestLoot) {
+        List<StructureTemplate.StructureBlockInfo> processed;
+        BUILDING.set(true);
+        try {
+            processed = StructureTemplate.processBlockInfos(level, BlockPos.ZERO, BlockPos.ZERO, settings, blockInfos);
+        } finally {
+            BUILDING.set(false);
+        }
+
+        StructureTemplate.StructureBlockInfo[] infos = processed.toArray(new StructureTemplate.StructureBlockInfo[0]);
+        boolean[] lootSeeded = new boolean[infos.length];
+        if (assignsChestLoot) {
+            for (int i = 0; i < infos.length; i++) {
+                lootSeeded[i] = infos[i].state().is(Blocks.CHEST) && infos[i].nbt() != null;
+            }
+        }
+        return new Entry(infos, lootSeeded);
+    }
+
+    private record Entry(StructureTemplate.StructureBlockInfo[] infos, boolean[] lootSeeded) {
+        List<StructureTemplate.StructureBlockInfo> place(BlockPos offset, long worldSeed) {
+            List<StructureTemplate.StructureBlockInfo> result = new ArrayList<>(infos.length);
+            for (int i = 0; i < infos.length; i++) {
+                StructureTemplate.StructureBlockInfo info = infos[i];
+                BlockPos pos = info.pos().offset(offset);
+                // Placement writes into block entity tags, so every placement gets its own copy
+                CompoundTag nbt = info.nbt() != null ? info.nbt().copy() : null;
+                if (lootSeeded[i]) {
+                    WellChestLoot.reseed(nbt, worldSeed, pos);
+                }
+                result.add(new StructureTemplate.StructureBlockInfo(pos, info.state(), nbt));
+            }
+            return result;
+        }
+    }
+
+    /** Palettes and processors are compared by identity; both are stable until a reload. */
+    private static final class Key {
+        private final List<StructureTemplate.StructureBlockInfo> blocks;
+        private final Rotation rotation;
+        private final Mirror mirror;
+        private final BlockPos pivot;
+        private final StructureProcessor[] processors;
+        private final int hash;
+
+        private Key(List<StructureTemplate.StructureBlockInfo> blocks, Rotation rotation, Mirror mirror,
+                    BlockPos pivot, StructureProcessor[] processors) {
+            this.blocks = blocks;
+            this.rotation = rotation;
+            this.mirror = mirror;
+            this.pivot = pivot;
+            this.processors = processors;
+
+            int h = System.identityHashCode(blocks);
+            h = 31 * h + rotation.hashCode();
+            h = 31 * h + mirror.hashCode();
+            h = 31 * h + pivot.hashCode();
+            for (StructureProcessor processor : processors) {
+                h = 31 * h + System.identityHashCode(processor);
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other) || hash != other.hash || blocks != other.blocks
+                    || rotation != other.rotation || mirror != other.mirror || !pivot.equals(other.pivot)
+                    || processors.length != other.processors.length) {
+                return false;
+            }
+            for (int i = 0; i < processors.length; i++) {
+                if (processors[i] != other.processors[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.WorldGenLevel;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import java.util.function.Predicate;
+
+/**
+ * Scans a block box by reading chunk sections directly instead of going through
+ * {@link WorldGenLevel#getBlockState} for every position.
+ *
+ * Sections whose palette cannot contain a matching state are skipped entirely,
+ * so boxes that hold nothing of interest cost only a few palette checks.
+ */
+public class WellSectionScanner {
+
+    @FunctionalInterface
+    public interface Visitor {
+        /**
+         * Called for every matching block. The position is mutable and reused
+         * between calls; call {@link BlockPos#immutable()} to keep it.
+         */
+        void visit(BlockPos.MutableBlockPos pos, BlockState state);
+    }
+
+    public static void scan(
+            WorldGenLevel level,
+            int minX, int minY, int minZ,
+            int maxX, int maxY, int maxZ,
+            Predicate<BlockState> filter,
+            Visitor visitor) {
+
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            int fromX = Math.max(minX, chunkX << 4);
+            int toX = Math.min(maxX, (chunkX << 4) + 15);
+
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                int fromZ = Math.max(minZ, chunkZ << 4);
+                int toZ = Math.min(maxZ, (chunkZ << 4) + 15);
+                ChunkAccess chunk = level.getChunk(chunkX, chunkZ);
+
+                for (int sectionY = minY >> 4; sectionY <= maxY >> 4; sectionY++) {
+                    int index = chunk.getSectionIndexFromSectionY(sectionY);
+                    if (index < 0 || index >= chunk.getSectionsCount()) {
+                        continue;
+                    }
+
+                    LevelChunkSection section = chunk.getSection(index);
+                    if (section.hasOnlyAir() || !section.maybeHas(filter)) {
+                        continue;
+                    }
+
+                    int fromY = Math.max(minY, sectionY << 4);
+                    int toY = Math.min(maxY, (sectionY << 4) + 15);
+
+                    // y-z-x order matches the section's packed index layout
+                    for (int y = fromY; y <= toY; y++) {
+                        for (int z = fromZ; z <= toZ; z++) {
+                            for (int x = fromX; x <= toX; x++) {
+                                BlockState state = section.getBlockState(x & 15, y & 15, z & 15);
+                                if (filter.test(state)) {
+                                    visitor.visit(pos.set(x, y, z), state);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import com.weatheredwells.WeatheredWells;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.levelgen.structure.PoolElementStructurePiece;
+import net.minecraft.world.level.levelgen.structure.Structure;
+import net.minecraft.world.level.levelgen.structure.StructurePiece;
+import net.minecraft.world.level.levelgen.structure.pools.SinglePoolElement;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureProcessor;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches the {@link WellPlacementPolicy} of every registered structure, keyed by
+ * {@link Structure} identity.
+ *
+ * The structure registry is frozen once the server has loaded its worldgen data
+ * (it is not affected by /reload), so the table is built once per RegistryAccess
+ * and then answers lookups without touching the registry or allocating.
+ *
+ * A structure-level FULL_FIXUP is refined per start by {@link #forPieces},
+ * so the pieces' processors rather than the structure id decide whether a
+ * well keeps its surrounding water.
+ */
+public class WellStructurePolicies {
+    private static volatile Snapshot snapshot;
+
+    public static void rebuild(RegistryAccess registryAccess) {
+        snapshot = build(registryAccess);
+    }
+
+    public static void clear() {
+        snapshot = null;
+    }
+
+    public static WellPlacementPolicy get(RegistryAccess registryAccess, Structure structure) {
+        Snapshot current = snapshot;
+        if (current == null || current.registryAccess() != registryAccess) {
+            // Lazy fallback for placements that happen before SERVER_STARTING (e.g. spawn chunk prep)
+            current = build(registryAccess);
+            snapshot = current;
+        }
+        WellPlacementPolicy policy = current.policies().get(structure);
+        return policy != null ? policy : WellPlacementPolicy.SKIP;
+    }
+
+    /**
+     * Only pieces whose processors strip waterlogging need the fixup; wells placed
+     * without waterlog removal (sunken wells) keep their surrounding water.
+     */
+    public static WellPlacementPolicy forPieces(List<StructurePiece> pieces) {
+        for (StructurePiece piece : pieces) {
+            if (piece instanceof PoolElementStructurePiece poolPiece
+                    && poolPiece.getElement() instanceof SinglePoolElement element) {
+                for (StructureProcessor processor : element.processors.value().list()) {
+                    if (processor instanceof WaterlogRemovalProcessor
+                            || processor instanceof WellProcessor wellProcessor && wellProcessor.removesWaterlogging()) {
+                        return WellPlacementPolicy.FULL_FIXUP;
+                    }
+                }
+            }
+        }
+        return WellPlacementPolicy.SUNKEN;
+    }
+
+    private static Snapshot build(RegistryAccess registryAccess) {
+        Map<Structure, WellPlacementPolicy> policies = new IdentityHashMap<>();
+        registryAccess.lookupOrThrow(Registries.STRUCTURE).listElements().forEach(holder -> {
+            ResourceLocation id = holder.key().location();
+            if (id.getNamespace().equals(WeatheredWells.MOD_ID)) {
+                policies.put(holder.value(), WellPlacementPolicy.FULL_FIXUP);
+            }
+        });
+        WeatheredWells.LOGGER.debug("Built placement policies for {} well structures", policies.size());
+        return new Snapshot(registryAccess, policies);
+    }
+
+    private record Snapshot(RegistryAccess registryAccess, Map<Structure, WellPlacementPolicy> policies) {
+    }
+}
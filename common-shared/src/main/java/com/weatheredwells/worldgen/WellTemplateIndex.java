@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import com.weatheredwells.WeatheredWells;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.block.Mirror;
+import net.minecraft.world.level.levelgen.structure.PoolElementStructurePiece;
+import net.minecraft.world.level.levelgen.structure.pools.SinglePoolElement;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of {@link WellTemplateMask}s for the mod's structure templates.
+ *
+ * Masks are built from the template palette the first time a template is
+ * seen and reused for every later placement. The index is cleared whenever
+ * server data is reloaded, since the StructureTemplateManager drops its
+ * templates at the same time.
+ */
+public class WellTemplateIndex {
+    private static final Map<ResourceLocation, Optional<WellTemplateMask>> MASKS = new ConcurrentHashMap<>();
+
+    public static void clear() {
+        MASKS.clear();
+    }
+
+    /**
+     * Returns the transformed waterlogging cells of the template placed by the given
+     * piece, relative to {@link PoolElementStructurePiece#getPosition()}, or null if
+     * the piece does not place a single template from this mod.
+     */
+    @Nullable
+    public static WellTemplateMask.Cells cellsFor(
+            StructureTemplateManager templateManager,
+            PoolElementStructurePiece poolPiece) {
+        if (!(poolPiece.getElement() instanceof SinglePoolElement element)) {
+            return null;
+        }
+
+        Optional<ResourceLocation> location = element.template.left();
+        if (location.isEmpty()) {
+            return null;
+        }
+
+        WellTemplateMask mask = get(templateManager, location.get());
+        // Jigsaw pieces are never mirrored
+        return mask != null ? mask.get(poolPiece.getRotation(), Mirror.NONE) : null;
+    }
+
+    @Nullable
+    public static WellTemplateMask get(StructureTemplateManager templateManager, ResourceLocation location) {
+        if (!location.getNamespace().equals(WeatheredWells.MOD_ID)) {
+            return null;
+        }
+
+        Optional<WellTemplateMask> mask = MASKS.get(location);
+        if (mask == null) {
+            // Built outside computeIfAbsent so a template load never blocks other lookups
+            mask = templateManager.get(location).map(template -> build(location, template));
+            Optional<WellTemplateMask> existing = MASKS.putIfAbsent(location, mask);
+            if (existing != null) {
+                mask = existing;
+            }
+        }
+        return mask.orElse(null);
+    }
+
+    private static WellTemplateMask build(ResourceLocation location, StructureTemplate template) {
+        if (template.palettes.isEmpty()) {
+            return WellTemplateMask.build(List.of());
+        }
+        if (template.palettes.size() > 1) {
+            WeatheredWells.LOGGER.warn("Template {} has {} palettes; only the first is indexed",
+                    location, template.palettes.size());
+        }
+        return WellTemplateMask.build(template.palettes.get(0).blocks());
+    }
+}
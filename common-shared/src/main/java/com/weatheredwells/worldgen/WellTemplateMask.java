@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.Mirror;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.BlockStateProperties;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+
+import java.util.List;
+
+/**
+ * Waterlogging layout of a single structure template, precomputed for every
+ * {@link Rotation} / {@link Mirror} combination.
+ *
+ * Positions are relative to the template origin after transformation and are
+ * packed with {@link BlockPos#asLong(int, int, int)}; add the piece position to
+ * get world coordinates.
+ */
+public class WellTemplateMask {
+    private static final int MIRRORS = Mirror.values().length;
+
+    private final Cells[] cells;
+
+    private WellTemplateMask(Cells[] cells) {
+        this.cells = cells;
+    }
+
+    /**
+     * Cells of a transformed template.
+     *
+     * @param waterloggable every position that holds a block with the WATERLOGGED property
+     * @param intentional   the subset that is waterlogged in the template itself
+     */
+    public record Cells(long[] waterloggable, long[] intentional) {
+    }
+
+    public Cells get(Rotation rotation, Mirror mirror) {
+        return cells[rotation.ordinal() * MIRRORS + mirror.ordinal()];
+    }
+
+    public static WellTemplateMask build(List<StructureTemplate.StructureBlockInfo> blocks) {
+        Cells[] cells = new Cells[Rotation.values().length * MIRRORS];
+        for (Rotation rotation : Rotation.values()) {
+            for (Mirror mirror : Mirror.values()) {
+                StructurePlaceSettings settings = new StructurePlaceSettings()
+                        .setRotation(rotation)
+                        .setMirror(mirror);
+                cells[rotation.ordinal() * MIRRORS + mirror.ordinal()] = buildCells(blocks, settings);
+            }
+        }
+        return new WellTemplateMask(cells);
+    }
+
+    private static Cells buildCells(
+            List<StructureTemplate.StructureBlockInfo> blocks,
+            StructurePlaceSettings settings) {
+
+        LongArrayList waterloggable = new LongArrayList();
+        LongArrayList intentional = new LongArrayList();
+
+        for (StructureTemplate.StructureBlockInfo info : blocks) {
+            BlockState state = info.state();
+            if (!state.hasProperty(BlockStateProperties.WATERLOGGED)) {
+                continue;
+            }
+
+            long packed = StructureTemplate.calculateRelativePosition(settings, info.pos()).asLong();
+            waterloggable.add(packed);
+            if (state.getValue(BlockStateProperties.WATERLOGGED)) {
+                intentional.add(packed);
+            }
+        }
+
+        return new Cells(waterloggable.toLongArray(), intentional.toLongArray());
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import com.weatheredwells.WeatheredWells;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.levelgen.structure.pools.SinglePoolElement;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplateManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Loads the mod's structure templates when the server has started, instead of
+ * on a worldgen thread the first time each well variant generates.
+ *
+ * Every single-template element of the mod's template pools is loaded and
+ * decoded, its {@link WellTemplateMask} built, and its processed block list
+ * put in the {@link WellProcessedTemplateCache} for all four rotations. The
+ * elements are handled in parallel on the common ForkJoin pool without
+ * holding up server start. Disabled with -Dweatheredwells.warmup=false.
+ */
+public class WellTemplateWarmup {
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("weatheredwells.warmup", "true"));
+
+    public static void start(MinecraftServer server) {
+        if (!ENABLED) {
+            return;
+        }
+
+        ServerLevel level = server.overworld();
+        StructureTemplateManager templateManager = server.getStructureManager();
+        List<SinglePoolElement> elements = server.registryAccess().lookupOrThrow(Registries.TEMPLATE_POOL)
+                .listElements()
+                .filter(pool -> pool.key().location().getNamespace().equals(WeatheredWells.MOD_ID))
+                .flatMap(pool -> pool.value().getShuffledTemplates(RandomSource.create(0L)).stream())
+                .filter(element -> element instanceof SinglePoolElement)
+                .map(element -> (SinglePoolElement) element)
+                .distinct()
+                .toList();
+
+        long startNanos = System.nanoTime();
+        CompletableFuture.runAsync(() -> {
+            int placements = elements.parallelStream()
+                    .mapToInt(element -> warm(level, templateManager, element))
+                    .sum();
+            WeatheredWells.LOGGER.info("Warmed up {} well templates ({} processed placements) in {} ms",
+                    elements.size(), placements, (System.nanoTime() - startNanos) / 1_000_000L);
+        }, ForkJoinPool.commonPool()).exceptionally(error -> {
+            WeatheredWells.LOGGER.warn("Well template warm-up failed", error);
+            return null;
+        });
+    }
+
+    private static int warm(ServerLevel level, StructureTemplateManager templateManager, SinglePoolElement element) {
+        Optional<ResourceLocation> location = element.template.left();
+        if (location.isEmpty() || WellTemplateIndex.get(templateManager, location.get()) == null) {
+            return 0;
+        }
+
+        Optional<StructureTemplate> template = templateManager.get(location.get());
+        if (template.isEmpty() || template.get().palettes.isEmpty()) {
+            return 0;
+        }
+
+        // Jigsaw pieces place the first (only) palette of the mod's templates
+        List<StructureTemplate.StructureBlockInfo> blocks = template.get().palettes.get(0).blocks();
+        int placements = 0;
+        for (Rotation rotation : Rotation.values()) {
+            if (WellProcessedTemplateCache.warm(level, WellStructure.placeSettings(element, rotation), blocks)) {
+                placements++;
+            }
+        }
+        return placements;
+    }
+}
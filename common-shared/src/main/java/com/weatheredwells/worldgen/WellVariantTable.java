@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import com.weatheredwells.WeatheredWells;
+import net.minecraft.core.Holder;
+import net.minecraft.core.QuartPos;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.BiomeSource;
+import net.minecraft.world.level.chunk.ChunkGenerator;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.levelgen.LegacyRandomSource;
+import net.minecraft.world.level.levelgen.RandomState;
+import net.minecraft.world.level.levelgen.WorldgenRandom;
+import net.minecraft.world.level.levelgen.structure.Structure;
+import net.minecraft.world.level.levelgen.structure.StructureSet;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Picks the one well of a structure set that a placement candidate gets.
+ *
+ * The chunk generator tries the structures of a set one by one, in weighted
+ * random order, until one generates; for the well set that meant a placement
+ * attempt for every variant until one passed its biome check. Here the biome
+ * is sampled once per candidate, at the candidate chunk's corner column, and
+ * one variant allowed there is picked by the set's weights. The other variants
+ * turn the candidate down before doing any work (see
+ * {@link WellStructure#findGenerationPoint}), and the picked one still passes
+ * the vanilla biome check where the well actually sits.
+ *
+ * The variants usable in a biome and their cumulative weights are computed
+ * the first time the biome is seen, so picking a variant is a map lookup and
+ * a binary search. Tables are built per RegistryAccess, like
+ * {@link WellStructurePolicies}, for every structure set that lists a well.
+ */
+public class WellVariantTable {
+    /** Keeps the pick independent of the placement's own random rolls. */
+    private static final int PICK_SALT = 0x5745_4c4c;
+
+    private static final Choices NONE = new Choices(List.of(), new int[0]);
+
+    private static volatile Snapshot snapshot;
+
+    /** The generator asks every variant of the set about the same candidate in turn. */
+    private static final ThreadLocal<LastPick> LAST_PICK = ThreadLocal.withInitial(LastPick::new);
+
+    private final List<StructureSet.StructureSelectionEntry> entries;
+    private final Map<Holder<Biome>, Choices> choicesByBiome = new ConcurrentHashMap<>();
+
+    public WellVariantTable(List<StructureSet.StructureSelectionEntry> entries) {
+        this.entries = List.copyOf(entries);
+    }
+
+    /** The table of the structure set that lists the structure, or null when no set lists a well with it. */
+    @Nullable
+    public static WellVariantTable forStructure(RegistryAccess registryAccess, Structure structure) {
+        Snapshot current = snapshot;
+        if (current == null || current.registryAccess() != registryAccess) {
+            current = build(registryAccess);
+            snapshot = current;
+        }
+        return current.tables().get(structure);
+    }
+
+    public static void clear() {
+        snapshot = null;
+    }
+
+    public List<StructureSet.StructureSelectionEntry> entries() {
+        return entries;
+    }
+
+    /**
+     * The variant picked for a candidate chunk, or null when its biome allows none.
+     */
+    @Nullable
+    public Holder<Structure> pick(ChunkGenerator generator, BiomeSource biomeSource, RandomState randomState,
+                                  LevelHeightAccessor heightAccessor, long seed, ChunkPos chunkPos) {
+        LastPick last = LAST_PICK.get();
+        long chunk = chunkPos.toLong();
+        if (last.table == this && last.randomState == randomState && last.seed == seed && last.chunk == chunk) {
+            return last.variant;
+        }
+
+        Holder<Structure> variant = pick(sampleBiome(generator, biomeSource, randomState, heightAccessor, chunkPos),
+                seed, chunkPos);
+        last.table = this;
+        last.randomState = randomState;
+        last.seed = seed;
+        last.chunk = chunk;
+        last.variant = variant;
+        return variant;
+    }
+
+    /**
+     * The variant picked for a candidate chunk in the given biome, or null when
+     * the biome allows none.
+     */
+    @Nullable
+    public Holder<Structure> pick(Holder<Biome> biome, long seed, ChunkPos chunkPos) {
+        WorldgenRandom random = new WorldgenRandom(new LegacyRandomSource(0L));
+        random.setLargeFeatureWithSalt(seed, chunkPos.x, chunkPos.z, PICK_SALT);
+        return pick(biome, random);
+    }
+
+    /**
+     * Samples the biome a variant is picked from; also used by {@link WellLocator}
+     * to predict placements without generating chunks.
+     */
+    public static Holder<Biome> sampleBiome(ChunkGenerator generator, BiomeSource biomeSource, RandomState randomState,
+                                            LevelHeightAccessor heightAccessor, ChunkPos chunkPos) {
+        int x = chunkPos.getMinBlockX();
+        int z = chunkPos.getMinBlockZ();
+        int y = generator.getFirstFreeHeight(x, z, Heightmap.Types.WORLD_SURFACE_WG, heightAccessor, randomState);
+        return biomeSource.getNoiseBiome(
+                QuartPos.fromBlock(x), QuartPos.fromBlock(y), QuartPos.fromBlock(z), randomState.sampler());
+    }
+
+    @Nullable
+    private Holder<Structure> pick(Holder<Biome> biome, RandomSource random) {
+        Choices choices = choicesByBiome.computeIfAbsent(biome, this::build);
+        int count = choices.structures().size();
+        if (count == 0) {
+            return null;
+        }
+        if (count == 1) {
+            return choices.structures().get(0);
+        }
+
+        int[] cumulativeWeights = choices.cumulativeWeights();
+        int roll = random.nextInt(cumulativeWeights[count - 1]);
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulativeWeights[mid] > roll) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return choices.structures().get(low);
+    }
+
+    private Choices build(Holder<Biome> biome) {
+        List<Holder<Structure>> structures = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        int total = 0;
+        for (StructureSet.StructureSelectionEntry entry : entries) {
+            if (entry.structure().value().biomes().contains(biome)) {
+                total += entry.weight();
+                structures.add(entry.structure());
+                weights.add(total);
+            }
+        }
+        if (structures.isEmpty()) {
+            return NONE;
+        }
+        return new Choices(List.copyOf(structures),
+                weights.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static Snapshot build(RegistryAccess registryAccess) {
+        Map<Structure, WellVariantTable> tables = new IdentityHashMap<>();
+        registryAccess.lookupOrThrow(Registries.STRUCTURE_SET).listElements().forEach(holder -> {
+            List<StructureSet.StructureSelectionEntry> entries = holder.value().structures();
+            if (entries.stream().anyMatch(entry -> entry.structure().value() instanceof WellStructure)) {
+                WellVariantTable table = new WellVariantTable(entries);
+                for (StructureSet.StructureSelectionEntry entry : entries) {
+                    tables.put(entry.structure().value(), table);
+                }
+            }
+        });
+        WeatheredWells.LOGGER.debug("Built variant tables for {} well structures", tables.size());
+        return new Snapshot(registryAccess, tables);
+    }
+
+    private record Choices(List<Holder<Structure>> structures, int[] cumulativeWeights) {
+    }
+
+    private record Snapshot(RegistryAccess registryAccess, Map<Structure, WellVariantTable> tables) {
+    }
+
+    private static final class LastPick {
+        @Nullable
+        WellVariantTable table;
+        @Nullable
+        RandomState randomState;
+        long seed;
+        long chunk;
+        @Nullable
+        Holder<Structure> variant;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import net.minecraft.tags.FluidTags;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraft.world.level.NoiseColumn;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkGenerator;
+import net.minecraft.world.level.levelgen.NoiseBasedChunkGenerator;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraft.world.level.levelgen.structure.Structure;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Checks a well candidate's footprint for water in the noise (sea level or
+ * aquifer), for structures with avoid_aquifer_water.
+ *
+ * Only the four corner columns are sampled, and only over the part of the box
+ * below the surface. Noise generators fill a column over the height they are
+ * given, so that range is widened to whole noise cells: the generator fills
+ * cells from the cell containing the bottom but indexes the column from the
+ * bottom itself, so an unaligned range would shift the column and leave its
+ * top entries unset.
+ */
+public class WellWaterSampler {
+
+    public static boolean intersectsWater(Structure.GenerationContext context, BoundingBox box, int surfaceY) {
+        int maxY = Math.min(box.maxY(), surfaceY);
+        if (maxY < box.minY()) {
+            return false;
+        }
+        ChunkGenerator generator = context.chunkGenerator();
+        // Other generators lay their column out from the accessor's bottom, so they keep the full height
+        LevelHeightAccessor heightAccessor = generator instanceof NoiseBasedChunkGenerator noiseGenerator
+                ? cellAligned(box.minY(), maxY, noiseGenerator.generatorSettings().value().noiseSettings().getCellHeight())
+                : context.heightAccessor();
+        int[][] corners = {
+                {box.minX(), box.minZ()}, {box.minX(), box.maxZ()},
+                {box.maxX(), box.minZ()}, {box.maxX(), box.maxZ()}
+        };
+        for (int[] corner : corners) {
+            NoiseColumn column = generator.getBaseColumn(corner[0], corner[1], heightAccessor, context.randomState());
+            if (holdsWater(column, box.minY(), maxY)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Height range covering minY to maxY (inclusive), widened to whole cells. */
+    static LevelHeightAccessor cellAligned(int minY, int maxY, int cellHeight) {
+        int alignedMinY = Math.floorDiv(minY, cellHeight) * cellHeight;
+        int alignedMaxY = (Math.floorDiv(maxY, cellHeight) + 1) * cellHeight;
+        return LevelHeightAccessor.create(alignedMinY, alignedMaxY - alignedMinY);
+    }
+
+    /** Whether the column holds water between minY and maxY; missing columns and entries hold none. */
+    static boolean holdsWater(@Nullable NoiseColumn column, int minY, int maxY) {
+        if (column == null) {
+            return false;
+        }
+        for (int y = minY; y <= maxY; y++) {
+            BlockState state = column.getBlock(y);
+            if (state != null && state.getFluidState().is(FluidTags.WATER)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
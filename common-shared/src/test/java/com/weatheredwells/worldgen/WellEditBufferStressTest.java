@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import com.mojang.serialization.Lifecycle;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.MappedRegistry;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraft.world.level.WorldGenLevel;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.BiomeGenerationSettings;
+import net.minecraft.world.level.biome.BiomeSpecialEffects;
+import net.minecraft.world.level.biome.Biomes;
+import net.minecraft.world.level.biome.MobSpawnSettings;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.ProtoChunk;
+import net.minecraft.world.level.chunk.UpgradeData;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Applies the edits of one well per thread to proto-chunks, the way the
+ * placement mixins do on the worldgen threads, and compares every section with
+ * a single-threaded run of the same edits. Timings for both runs are printed.
+ *
+ * Every well straddles a border between two chunks of its own. Vanilla never
+ * runs feature placement of overlapping chunk regions at once; a write into a
+ * section another thread is writing fails in the section's threading detector
+ * instead of being serialized, so the wells here share no section.
+ *
+ * StructureStart.placeInChunk itself needs a server level, structure manager
+ * and chunk generator, which cannot be set up in a unit test; the test covers
+ * the step of it that writes to the chunks.
+ */
+class WellEditBufferStressTest {
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 100;
+    private static final LevelHeightAccessor HEIGHT = LevelHeightAccessor.create(0, 64);
+    private static final BlockState[] STATES = {
+            Blocks.STONE_BRICKS.defaultBlockState(),
+            Blocks.MOSSY_STONE_BRICKS.defaultBlockState(),
+            Blocks.WATER.defaultBlockState(),
+            Blocks.COBBLESTONE.defaultBlockState()
+    };
+
+    private static Registry<Biome> biomes;
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        MappedRegistry<Biome> registry = new MappedRegistry<>(Registries.BIOME, Lifecycle.stable());
+        Registry.register(registry, Biomes.PLAINS, new Biome.BiomeBuilder()
+                .hasPrecipitation(false)
+                .temperature(0.5F)
+                .downfall(0.5F)
+                .specialEffects(new BiomeSpecialEffects.Builder()
+                        .fogColor(0)
+                        .waterColor(0)
+                        .waterFogColor(0)
+                        .skyColor(0)
+                        .build())
+                .mobSpawnSettings(MobSpawnSettings.EMPTY)
+                .generationSettings(BiomeGenerationSettings.EMPTY)
+                .build());
+        biomes = registry;
+    }
+
+    @Test
+    void concurrentAppliesMatchSingleThreadedApply() throws Exception {
+        Long2ObjectMap<ProtoChunk> expected = chunks();
+        WorldGenLevel expectedLevel = levelOf(expected);
+        for (int t = 0; t < THREADS; t++) {
+            well(t).apply(expectedLevel);
+        }
+
+        long singleNanos = 0;
+        long concurrentNanos = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                Long2ObjectMap<ProtoChunk> single = chunks();
+                WorldGenLevel singleLevel = levelOf(single);
+                List<WellEditBuffer> singleWells = wells();
+                long start = System.nanoTime();
+                for (WellEditBuffer well : singleWells) {
+                    well.apply(singleLevel);
+                }
+                singleNanos += System.nanoTime() - start;
+
+                Long2ObjectMap<ProtoChunk> concurrent = chunks();
+                WorldGenLevel concurrentLevel = levelOf(concurrent);
+                List<WellEditBuffer> concurrentWells = wells();
+                CyclicBarrier barrier = new CyclicBarrier(THREADS + 1);
+                List<Future<?>> results = new ArrayList<>();
+                for (WellEditBuffer well : concurrentWells) {
+                    results.add(executor.submit(() -> {
+                        barrier.await(10, TimeUnit.SECONDS);
+                        well.apply(concurrentLevel);
+                        return null;
+                    }));
+                }
+                barrier.await(10, TimeUnit.SECONDS);
+                start = System.nanoTime();
+                for (Future<?> result : results) {
+                    result.get(1, TimeUnit.MINUTES);
+                }
+                concurrentNanos += System.nanoTime() - start;
+
+                assertSameSections(expected, single);
+                assertSameSections(expected, concurrent);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        System.out.printf(Locale.ROOT, "WellEditBuffer.apply, %d wells x %d rounds: 1 thread %.2f ms, %d threads %.2f ms%n",
+                THREADS, ROUNDS, singleNanos / 1e6, THREADS, concurrentNanos / 1e6);
+    }
+
+    private static List<WellEditBuffer> wells() {
+        List<WellEditBuffer> wells = new ArrayList<>(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            wells.add(well(t));
+        }
+        return wells;
+    }
+
+    /** A 16 x 48 x 16 block of edits across the border of chunks (2t, 0) and (2t + 1, 0), in scan order. */
+    private static WellEditBuffer well(int thread) {
+        WellEditBuffer edits = new WellEditBuffer();
+        int minX = thread * 32 + 8;
+        for (int y = 0; y < 48; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = minX; x < minX + 16; x++) {
+                    edits.set(new BlockPos(x, y, z), STATES[Math.floorMod(x + y * 3 + z * 5, STATES.length)]);
+                }
+            }
+        }
+        return edits;
+    }
+
+    private static Long2ObjectMap<ProtoChunk> chunks() {
+        Long2ObjectMap<ProtoChunk> chunks = new Long2ObjectOpenHashMap<>();
+        for (int x = 0; x < THREADS * 2; x++) {
+            ChunkPos pos = new ChunkPos(x, 0);
+            chunks.put(pos.toLong(), new ProtoChunk(pos, UpgradeData.EMPTY, HEIGHT, biomes, null));
+        }
+        return chunks;
+    }
+
+    /** A level that only hands out the given chunks; the buffer needs nothing else for proto-chunks. */
+    private static WorldGenLevel levelOf(Long2ObjectMap<ProtoChunk> chunks) {
+        return (WorldGenLevel) Proxy.newProxyInstance(WorldGenLevel.class.getClassLoader(),
+                new Class<?>[]{WorldGenLevel.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getChunk") && args != null && args.length == 2) {
+                        return chunks.get(ChunkPos.asLong((int) args[0], (int) args[1]));
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static void assertSameSections(Long2ObjectMap<ProtoChunk> expected, Long2ObjectMap<ProtoChunk> actual) {
+        for (Long2ObjectMap.Entry<ProtoChunk> entry : expected.long2ObjectEntrySet()) {
+            LevelChunkSection[] expectedSections = entry.getValue().getSections();
+            LevelChunkSection[] actualSections = actual.get(entry.getLongKey()).getSections();
+            for (int i = 0; i < expectedSections.length; i++) {
+                for (int y = 0; y < 16; y++) {
+                    for (int z = 0; z < 16; z++) {
+                        for (int x = 0; x < 16; x++) {
+                            assertSame(expectedSections[i].getBlockState(x, y, z), actualSections[i].getBlockState(x, y, z));
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
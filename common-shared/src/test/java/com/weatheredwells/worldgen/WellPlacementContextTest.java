@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import net.minecraft.core.BlockPos;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs placements on several threads in lockstep, so every thread holds an
+ * open context while the others record and query theirs.
+ */
+class WellPlacementContextTest {
+    private static final int THREADS = 8;
+    private static final int PLACEMENTS = 200;
+
+    private static final long[] CELLS = {
+            BlockPos.asLong(0, 0, 0),
+            BlockPos.asLong(1, 2, 3),
+            BlockPos.asLong(-1, 0, 4)
+    };
+
+    @Test
+    void contextsAreConfinedToTheirThread() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < PLACEMENTS; i++) {
+                        placeAndCheck(barrier, thread, i);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void placeAndCheck(CyclicBarrier barrier, int thread, int placement) throws Exception {
+        BlockPos origin = new BlockPos(thread * 1024, 64, placement * 16);
+        BlockPos otherOrigin = new BlockPos(((thread + 1) % THREADS) * 1024, 64, placement * 16);
+
+        WellPlacementContext context = WellPlacementContext.begin();
+        context.markIntentionallyWaterlogged(CELLS, origin);
+        barrier.await(10, TimeUnit.SECONDS);
+
+        assertSame(context, WellPlacementContext.current());
+        assertTrue(context.edits().isEmpty());
+        for (long cell : CELLS) {
+            BlockPos pos = BlockPos.of(BlockPos.offset(cell, origin.getX(), origin.getY(), origin.getZ()));
+            BlockPos otherPos = BlockPos.of(BlockPos.offset(cell, otherOrigin.getX(), otherOrigin.getY(), otherOrigin.getZ()));
+            assertTrue(context.isIntentionallyWaterlogged(pos));
+            assertFalse(context.isIntentionallyWaterlogged(otherPos));
+            assertTrue(context.markVisited(pos));
+            assertFalse(context.markVisited(pos));
+        }
+        barrier.await(10, TimeUnit.SECONDS);
+
+        WellPlacementContext.end();
+        assertNull(WellPlacementContext.current());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.block.state.properties.BlockStateProperties;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructurePlaceSettings;
+import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Places one template from several threads at once, starting together so the
+ * first placements race on building the cache entry, and compares every result
+ * with the uncached processing of the same placement.
+ */
+class WellProcessedTemplateCacheTest {
+    private static final int THREADS = 8;
+    private static final int PLACEMENTS = 200;
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+
+    @AfterEach
+    void clearCache() {
+        WellProcessedTemplateCache.clear();
+    }
+
+    @Test
+    void concurrentPlacementsMatchUncachedProcessing() throws Exception {
+        List<StructureTemplate.StructureBlockInfo> blocks = List.of(
+                new StructureTemplate.StructureBlockInfo(new BlockPos(0, 0, 0),
+                        Blocks.OAK_STAIRS.defaultBlockState().setValue(BlockStateProperties.WATERLOGGED, true), null),
+                new StructureTemplate.StructureBlockInfo(new BlockPos(1, 0, 0),
+                        Blocks.STONE_BRICKS.defaultBlockState(), null),
+                new StructureTemplate.StructureBlockInfo(new BlockPos(0, 1, 2),
+                        Blocks.OAK_SLAB.defaultBlockState().setValue(BlockStateProperties.WATERLOGGED, true), null));
+        StructurePlaceSettings settings = new StructurePlaceSettings()
+                .setRotation(Rotation.CLOCKWISE_90)
+                .addProcessor(WaterlogRemovalProcessor.INSTANCE);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    barrier.await(10, TimeUnit.SECONDS);
+                    for (int i = 0; i < PLACEMENTS; i++) {
+                        BlockPos offset = new BlockPos(thread * 64, i, -i);
+                        List<StructureTemplate.StructureBlockInfo> cached =
+                                WellProcessedTemplateCache.process(null, offset, settings, blocks);
+                        assertNotNull(cached);
+                        assertEquals(StructureTemplate.processBlockInfos(null, offset, offset, settings, blocks), cached);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
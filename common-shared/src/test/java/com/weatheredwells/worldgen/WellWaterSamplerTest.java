@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2025 ksoichiro
+ *
+ * This file is part of Weathered Wells.
+ *
+ * Weathered Wells is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, version 3 of the License.
+ *
+ * Weathered Wells is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Weathered Wells. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.weatheredwells.worldgen;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraft.world.level.NoiseColumn;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the sampled height range is widened to whole noise cells, and
+ * that columns the generator did not fill completely are read safely.
+ */
+class WellWaterSamplerTest {
+    private static final int CELL_HEIGHT = 8;
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+
+    @Test
+    void unalignedRangeIsWidenedToWholeCells() {
+        // A box from y=-3 up to a surface at y=20 spans cells -8..-1, 0..7, 8..15 and 16..23
+        LevelHeightAccessor range = WellWaterSampler.cellAligned(-3, 20, CELL_HEIGHT);
+
+        assertEquals(32, range.getHeight());
+        assertFalse(range.isOutsideBuildHeight(-8));
+        assertTrue(range.isOutsideBuildHeight(-9));
+        assertFalse(range.isOutsideBuildHeight(23));
+        assertTrue(range.isOutsideBuildHeight(24));
+    }
+
+    @Test
+    void rangeShorterThanOneCellStillCoversACell() {
+        LevelHeightAccessor range = WellWaterSampler.cellAligned(65, 67, CELL_HEIGHT);
+
+        assertEquals(CELL_HEIGHT, range.getHeight());
+        assertFalse(range.isOutsideBuildHeight(64));
+        assertFalse(range.isOutsideBuildHeight(71));
+    }
+
+    @Test
+    void alignedRangeIsKept() {
+        LevelHeightAccessor range = WellWaterSampler.cellAligned(-16, 15, CELL_HEIGHT);
+
+        assertEquals(32, range.getHeight());
+        assertTrue(range.isOutsideBuildHeight(-17));
+        assertTrue(range.isOutsideBuildHeight(16));
+    }
+
+    @Test
+    void waterIsFoundAtItsOwnHeight() {
+        BlockState[] blocks = column(CELL_HEIGHT * 2);
+        blocks[5] = Blocks.WATER.defaultBlockState();
+        NoiseColumn column = new NoiseColumn(-8, blocks);
+
+        assertTrue(WellWaterSampler.holdsWater(column, -3, 0));
+        assertFalse(WellWaterSampler.holdsWater(column, -2, 7));
+    }
+
+    @Test
+    void unsetEntriesAndMissingColumnsHoldNoWater() {
+        BlockState[] blocks = column(CELL_HEIGHT * 2);
+        for (int i = 11; i < blocks.length; i++) {
+            blocks[i] = null;
+        }
+
+        assertFalse(WellWaterSampler.holdsWater(new NoiseColumn(0, blocks), 0, 20));
+        assertFalse(WellWaterSampler.holdsWater(null, 0, 20));
+    }
+
+    private static BlockState[] column(int height) {
+        BlockState[] blocks = new BlockState[height];
+        for (int i = 0; i < height; i++) {
+            blocks[i] = Blocks.STONE.defaultBlockState();
+        }
+        return blocks;
+    }
+}